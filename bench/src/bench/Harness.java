@@ -0,0 +1,67 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal timing loop in the spirit of JMH: warm-up iterations, then timed
+ * iterations reporting throughput and bytes allocated per operation by the
+ * benchmark thread.
+ */
+final class Harness {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static volatile long sink;
+
+    private final int warmupIterations;
+    private final int iterations;
+    private final long iterationNanos;
+
+    Harness(int warmupIterations, int iterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    void run(String name, LongSupplier operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iterate(operation, new long[2]);
+        }
+        double[] throughput = new double[iterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        long[] result = new long[2];
+        for (int i = 0; i < iterations; i++) {
+            double seconds = iterate(operation, result);
+            throughput[i] = result[0] / seconds;
+            totalOps += result[0];
+            totalBytes += result[1];
+        }
+        Arrays.sort(throughput);
+        double mean = Arrays.stream(throughput).average().orElse(0);
+        double error = (throughput[throughput.length - 1] - throughput[0]) / 2;
+        System.out.printf("%-40s %,16.1f +- %,12.1f ops/s %,12.1f B/op%n",
+                name, mean, error, totalOps == 0 ? 0 : (double) totalBytes / totalOps);
+    }
+
+    private double iterate(LongSupplier operation, long[] result) {
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long deadline = start + iterationNanos;
+        long ops = 0;
+        long accumulator = 0;
+        long now;
+        do {
+            accumulator += operation.getAsLong();
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink = accumulator;
+        result[0] = ops;
+        result[1] = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return (now - start) / 1e9;
+    }
+}
@@ -0,0 +1,88 @@
+package bench;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.function.LongSupplier;
+
+import controller.GameStateFileHandler;
+import model.Board;
+import model.HardAI;
+import model.MoveList;
+import model.PieceColor;
+import test.RandomPlayout;
+
+/**
+ * Throughput and allocation rate of the model hot paths over a fixed,
+ * seeded suite of positions. Run before and after every engine change:
+ * <pre>
+ *   java -cp bin:bench/bin bench.ModelBenchmarks [filter]
+ * </pre>
+ */
+public class ModelBenchmarks {
+    private static final int POSITIONS = 64;
+
+    private final Board[] boards = new Board[POSITIONS];
+    private final PieceColor[] sides = new PieceColor[POSITIONS];
+    private final String[] saved = new String[POSITIONS];
+    private final MoveList moves = new MoveList();
+    private int cursor;
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        Harness harness = new Harness(Integer.getInteger("warmup", 3), Integer.getInteger("iterations", 5),
+                Long.getLong("iterationMillis", 1000));
+        new ModelBenchmarks().runAll(harness, filter);
+    }
+
+    ModelBenchmarks() {
+        Random random = new Random(20240601L);
+        for (int i = 0; i < POSITIONS; i++) {
+            boards[i] = new Board();
+            sides[i] = RandomPlayout.play(boards[i], PieceColor.WHITE, random.nextInt(40), random);
+            StringWriter text = new StringWriter();
+            GameStateFileHandler.writeBoard(boards[i], new PrintWriter(text));
+            saved[i] = text.toString();
+        }
+    }
+
+    void runAll(Harness harness, String filter) {
+        bench(harness, filter, "Board.getValidMoves", () -> nextBoard().getValidMoves(sides[cursor]).size());
+        bench(harness, filter, "Board.generateMoves", () -> nextBoard().generateMoves(sides[cursor], moves));
+        bench(harness, filter, "Board.copy", () -> nextBoard().copy().getHash());
+        bench(harness, filter, "Board.evaluate", () -> nextBoard().evaluate(sides[cursor]));
+        for (int depth : new int[] {4, 6, 8}) {
+            HardAI ai = new HardAI(depth, 0, 1, 1);
+            bench(harness, filter, "HardAI.makeMove depth " + depth, () -> {
+                ai.getTranspositionTable().clear();
+                return ai.makeMove(nextBoard(), sides[cursor]) == null ? 0 : ai.getNodes();
+            });
+        }
+        bench(harness, filter, "GameStateFileHandler.writeBoard", () -> {
+            StringWriter text = new StringWriter(80);
+            GameStateFileHandler.writeBoard(nextBoard(), new PrintWriter(text));
+            return text.getBuffer().length();
+        });
+        bench(harness, filter, "GameStateFileHandler.readBoard", () -> {
+            next();
+            return GameStateFileHandler.readBoard(new Scanner(saved[cursor])).getHash();
+        });
+    }
+
+    private void bench(Harness harness, String filter, String name, LongSupplier operation) {
+        if (name.contains(filter)) {
+            cursor = 0;
+            harness.run(name, operation);
+        }
+    }
+
+    private void next() {
+        cursor = (cursor + 1) % POSITIONS;
+    }
+
+    private Board nextBoard() {
+        next();
+        return boards[cursor];
+    }
+}
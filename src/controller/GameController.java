@@ -2,6 +2,8 @@ package controller;
 
 import java.awt.Point;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -11,6 +13,7 @@ import view.*;
 
 public class GameController {
     private static final Logger LOGGER = Logger.getLogger(GameController.class.getName());
+    private static final long AI_MOVE_DISPLAY_MILLIS = 1000;
     private GameState gameState;
     private AI ai;
     private final MainView view;
@@ -19,6 +22,7 @@ public class GameController {
     private int playerKills = 0;
     private int aiKills = 0;
     private GameStateFileHandler fileHandler;
+    private volatile CancellationToken searchToken;
 
     private final UserDAO userDAO = new UserDAO();
 
@@ -68,12 +72,14 @@ public class GameController {
     }
 
     public void setDifficulty(AIDifficulty difficulty) {
+        stopAI();
         this.ai = AIFactory.createAI(difficulty);
         resetGame();
     }
 
     private void resetGame() {
         if (currentUser != null && ai != null) {
+            stopAI();
             this.gameState = new GameState(currentUser, ai.getDifficulty());
             playerKills = 0;
             aiKills = 0;
@@ -96,7 +102,7 @@ public class GameController {
         Point pos = new Point(row, col);
         Piece piece = gameState.getBoard().getPiece(pos);
         if (piece != null && piece.getColor() == gameState.getCurrentPlayer()) {
-            gameView.highlightValidMoves(piece.getValidMoves(gameState.getBoard()));
+            gameView.highlightValidMoves(piece.getValidMoves(gameState.getBoard(), pos));
         } else {
             gameView.clearHighlights();
         }
@@ -132,7 +138,7 @@ public class GameController {
             LOGGER.severe("Piece at " + from + " does not belong to current player: " + piece.getColor());
             return null;
         }
-        return piece.getValidMoves(gameState.getBoard()).stream()
+        return piece.getValidMoves(gameState.getBoard(), from).stream()
                 .filter(m -> m.getTo().equals(to))
                 .findFirst()
                 .orElse(null);
@@ -140,32 +146,28 @@ public class GameController {
 
     private void executeMove(Move move) {
         Board board = gameState.getBoard();
-        Point from = move.getFrom();
-        Point to = move.getTo();
-
-        board.movePiece(from, to);
+        board.applyMove(move);
 
         if (move.isCapture()) {
-            board.removePiece(move.getCaptured());
+            int captured = move.getCapturedPieces().size();
             if (gameState.isCurrentPlayerHuman()) {
                 soundManager.playRandomSoundEffect("player_kill");
-                playerKills++;
+                playerKills += captured;
             } else {
                 soundManager.playRandomSoundEffect("ai_kill");
-                aiKills++;
+                aiKills += captured;
             }
 
-            Piece piece = board.getPiece(move.getTo());
-            List<Move> captures = piece.getValidMoves(board).stream()
-                    .filter(Move::isCapture)
-                    .collect(Collectors.toList());
-            if (!captures.isEmpty()) {
-                if (gameState.isCurrentPlayerHuman()) {
+            // AI moves are whole jump sequences; a human jumps one hop per click.
+            if (gameState.isCurrentPlayerHuman()) {
+                Piece piece = board.getPiece(move.getTo());
+                List<Move> captures = piece.getValidMoves(board, move.getTo()).stream()
+                        .filter(Move::isCapture)
+                        .collect(Collectors.toList());
+                if (!captures.isEmpty()) {
                     view.getGameView().highlightValidMoves(captures);
-                } else {
-                    executeMove(captures.get(0));
+                    return;
                 }
-                return;
             }
         }
 
@@ -176,33 +178,56 @@ public class GameController {
 
     public void makeAIMove() {
         if (gameState == null || ai == null) return;
-        Move aiMove = ai.makeMove(gameState.getBoard(), gameState.getCurrentPlayer());
-        if (aiMove == null) {
-            endGame(gameState.getCurrentPlayer().opposite());
-            return;
-        }
-
-        GameView gameView = view.getGameView();
-        if (gameView != null) gameView.showAIMove(aiMove);
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-                synchronized (gameState) {
-                    executeMove(aiMove);
+        GameState state = gameState;
+        CancellationToken token = new CancellationToken();
+        searchToken = token;
+        long start = System.currentTimeMillis();
+        ai.makeMoveAsync(state.getBoard(), state.getCurrentPlayer(), null, token,
+                progress -> LOGGER.fine(() -> "AI search: " + progress))
+            .thenAccept(aiMove -> {
+                LOGGER.info("AI move computed in " + (System.currentTimeMillis() - start) + " ms");
+                if (aiMove == null) {
+                    synchronized (state) {
+                        if (!token.isCancelled()) endGame(state.getCurrentPlayer().opposite());
+                    }
+                    return;
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+
+                GameView gameView = view.getGameView();
+                if (gameView != null) gameView.showAIMove(aiMove);
+                // Play the reply no sooner than a second after the search started; a slower search adds no further wait.
+                long delay = Math.max(0, AI_MOVE_DISPLAY_MILLIS - (System.currentTimeMillis() - start));
+                CompletableFuture.runAsync(() -> {
+                    synchronized (state) {
+                        if (token.isCancelled()) return;
+                        executeMove(aiMove);
+                        if (!state.isGameOver() && state.isCurrentPlayerHuman()) {
+                            ai.ponder(state.getBoard(), state.getCurrentPlayer());
+                        }
+                    }
+                }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+            })
+            .exceptionally(error -> {
+                if (!token.isCancelled()) LOGGER.severe("AI search failed: " + error);
+                return null;
+            });
+    }
+
+    /** Cancels any running or pondering AI search and drops the move it would have played. */
+    public void stopAI() {
+        CancellationToken token = searchToken;
+        if (token != null) token.cancel();
+        if (ai != null) ai.stopPondering();
     }
 
     private void checkGameOver() {
-        if (gameState.getBoard().getValidMoves(gameState.getCurrentPlayer()).isEmpty()) {
+        if (!gameState.getBoard().hasAnyLegalMove(gameState.getCurrentPlayer())) {
             endGame(gameState.getCurrentPlayer().opposite());
         }
     }
 
     private void endGame(PieceColor winner) {
+        stopAI();
         gameState.endGame(winner);
         soundManager.playRandomSoundEffect(winner == PieceColor.WHITE ? "player_win" : "ai_win");
 
@@ -249,6 +274,7 @@ public class GameController {
     }
 
     public void cleanup() {
+        stopAI();
         soundManager.stopBackgroundMusic();
         soundManager.cleanup();
         gameState = null;
@@ -55,21 +55,7 @@ public class GameStateFileHandler {
         file.getParentFile().mkdirs(); // Create directories if needed
 
         try (PrintWriter writer = new PrintWriter(file)) {
-            Board board = gameState.getBoard();
-            for (int row = 0; row < Board.SIZE; row++) {
-                StringBuilder sb = new StringBuilder();
-                for (int col = 0; col < Board.SIZE; col++) {
-                    Piece piece = board.getPiece(new Point(row, col));
-                    if (piece == null) {
-                        sb.append(' ');
-                    } else if (piece.getColor() == PieceColor.WHITE) {
-                        sb.append(piece instanceof King ? 'W' : 'w');
-                    } else {
-                        sb.append(piece instanceof King ? 'B' : 'b');
-                    }
-                }
-                writer.println(sb.toString());
-            }
+            writeBoard(gameState.getBoard(), writer);
             writer.println(gameState.getCurrentPlayer().name());
             writer.println(playerKills);
             writer.println(aiKills);
@@ -93,25 +79,7 @@ public class GameStateFileHandler {
         }
 
         try (Scanner scanner = new Scanner(file)) {
-            Board board = new Board();
-            for (int row = 0; row < Board.SIZE; row++) {
-            	String line = scanner.nextLine();
-                if (line.length() != Board.SIZE) {
-                    throw new IllegalArgumentException("Invalid board row length: " + line);
-                }
-                for (int col = 0; col < Board.SIZE; col++) {
-                    char c = line.charAt(col);
-                    Point pos = new Point(row, col);
-                    switch (c) {
-                        case 'w': board.setPiece(pos, new Checker(PieceColor.WHITE, pos)); break;
-                        case 'W': board.setPiece(pos, new King(PieceColor.WHITE, pos)); break;
-                        case 'b': board.setPiece(pos, new Checker(PieceColor.BLACK, pos)); break;
-                        case 'B': board.setPiece(pos, new King(PieceColor.BLACK, pos)); break;
-                        case ' ': board.setPiece(pos, null); break;
-                        default: throw new IllegalArgumentException("Invalid piece character: " + c);
-                    }
-                }
-            }
+            Board board = readBoard(scanner);
             String currentPlayerStr = scanner.nextLine().trim();
             PieceColor currentPlayer = PieceColor.valueOf(currentPlayerStr);
             int playerKills = Integer.parseInt(scanner.nextLine().trim());
@@ -127,5 +95,44 @@ public class GameStateFileHandler {
             return false;
         }
     }
-    
+
+    public static void writeBoard(Board board, PrintWriter writer) {
+        for (int row = 0; row < Board.SIZE; row++) {
+            StringBuilder sb = new StringBuilder();
+            for (int col = 0; col < Board.SIZE; col++) {
+                Piece piece = board.getPiece(new Point(row, col));
+                if (piece == null) {
+                    sb.append(' ');
+                } else if (piece.getColor() == PieceColor.WHITE) {
+                    sb.append(piece instanceof King ? 'W' : 'w');
+                } else {
+                    sb.append(piece instanceof King ? 'B' : 'b');
+                }
+            }
+            writer.println(sb.toString());
+        }
+    }
+
+    public static Board readBoard(Scanner scanner) {
+        Board board = new Board();
+        for (int row = 0; row < Board.SIZE; row++) {
+            String line = scanner.nextLine();
+            if (line.length() != Board.SIZE) {
+                throw new IllegalArgumentException("Invalid board row length: " + line);
+            }
+            for (int col = 0; col < Board.SIZE; col++) {
+                char c = line.charAt(col);
+                Point pos = new Point(row, col);
+                switch (c) {
+                    case 'w': board.setPiece(pos, Checker.WHITE); break;
+                    case 'W': board.setPiece(pos, King.WHITE); break;
+                    case 'b': board.setPiece(pos, Checker.BLACK); break;
+                    case 'B': board.setPiece(pos, King.BLACK); break;
+                    case ' ': board.setPiece(pos, null); break;
+                    default: throw new IllegalArgumentException("Invalid piece character: " + c);
+                }
+            }
+        }
+        return board;
+    }
 }
\ No newline at end of file
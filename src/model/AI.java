@@ -1,6 +1,44 @@
 package model;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 public interface AI {
     Move makeMove(Board board, PieceColor color);
     AIDifficulty getDifficulty();
+
+    /**
+     * Computes a move off the calling thread. The future completes with null
+     * when there is no legal move, and is cancelled when {@code token} is.
+     * Engines that search stop by {@code deadline} (null keeps their own
+     * budget) and report each finished iteration to {@code progress}; the
+     * default runs {@link #makeMove} and ignores both. A null {@code token}
+     * leaves cancelling the returned future as the only way to stop.
+     */
+    default CompletableFuture<Move> makeMoveAsync(Board board, PieceColor color, Instant deadline,
+                                                  CancellationToken token, Consumer<SearchProgress> progress) {
+        CancellationToken cancel = token != null ? token : new CancellationToken();
+        Board position = board.copy();
+        CompletableFuture<Move> future = new CompletableFuture<>();
+        future.whenComplete((move, error) -> {
+            if (future.isCancelled()) cancel.cancel();
+        });
+        CompletableFuture.runAsync(() -> {
+            try {
+                Move move = cancel.isCancelled() ? null : makeMove(position, color);
+                if (cancel.isCancelled()) future.cancel(false);
+                else future.complete(move);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /** Lets the engine think on its own time while {@code opponent} is to move on {@code board}. */
+    default void ponder(Board board, PieceColor opponent) {}
+
+    /** Stops any search started by {@link #ponder}; returns once it has finished. */
+    default void stopPondering() {}
 }
\ No newline at end of file
@@ -1,5 +1,23 @@
 package model;
 
 public enum AIDifficulty {
-    EASY, MEDIUM, HARD
-}
\ No newline at end of file
+    EASY(0, false), MEDIUM(0, true), HARD(1000, true);
+
+    private final long thinkTimeMillis;
+    private final boolean openingBook;
+
+    AIDifficulty(long thinkTimeMillis, boolean openingBook) {
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.openingBook = openingBook;
+    }
+
+    /** Per-move search budget for engines that search; 0 means the level does not search. */
+    public long getThinkTimeMillis() {
+        return thinkTimeMillis;
+    }
+
+    /** Whether engines at this level play from the opening book when one is loaded. */
+    public boolean usesOpeningBook() {
+        return openingBook;
+    }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Scores many independent positions at once. Positions are spread over a
+ * work-stealing pool, and every pool thread keeps one single-threaded
+ * {@link HardAI} for the analyzer's lifetime, so search buffers and the hash
+ * table are reused from one position to the next.
+ */
+public class BatchAnalyzer implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final ThreadLocal<HardAI> engines;
+    private volatile long lastPositions;
+    private volatile long lastElapsedNanos;
+
+    /**
+     * @param depth search depth per position
+     * @param hashMegabytes hash table size of each thread's engine
+     */
+    public BatchAnalyzer(int depth, int threads, int hashMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.pool = new ForkJoinPool(threads);
+        this.engines = ThreadLocal.withInitial(() -> {
+            HardAI engine = new HardAI(depth, 0, hashMegabytes, 1);
+            engine.setOpeningBook(null);
+            return engine;
+        });
+    }
+
+    /** Results in input order. */
+    public Analysis[] analyze(Position[] positions) throws InterruptedException {
+        Analysis[] results = new Analysis[positions.length];
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> IntStream.range(0, positions.length).parallel()
+                    .forEach(i -> results[i] = analyze(positions[i]))).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analysis failed", e.getCause());
+        }
+        lastElapsedNanos = System.nanoTime() - start;
+        lastPositions = positions.length;
+        return results;
+    }
+
+    public Analysis[] analyze(Stream<Position> positions) throws InterruptedException {
+        return analyze(positions.toArray(Position[]::new));
+    }
+
+    private Analysis analyze(Position position) {
+        HardAI engine = engines.get();
+        Move best = engine.analyze(position.board, position.sideToMove);
+        if (best == null) return new Analysis(null, -HardAI.TABLEBASE_WIN, 0, 0);
+        return new Analysis(best, engine.getScore(), engine.getCompletedDepth(), engine.getNodes());
+    }
+
+    public long getLastPositions() { return lastPositions; }
+    public long getLastElapsedMillis() { return lastElapsedNanos / 1_000_000; }
+
+    /** Throughput of the last batch. */
+    public double getPositionsPerSecond() {
+        return lastElapsedNanos == 0 ? 0 : lastPositions * 1e9 / lastElapsedNanos;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /** A position to score; the board is not modified. */
+    public static final class Position {
+        private final Board board;
+        private final PieceColor sideToMove;
+
+        public Position(Board board, PieceColor sideToMove) {
+            this.board = board;
+            this.sideToMove = sideToMove;
+        }
+
+        public Board getBoard() { return board; }
+        public PieceColor getSideToMove() { return sideToMove; }
+    }
+
+    /** Search result for one position; the score is from the side to move's point of view. */
+    public static final class Analysis {
+        private final Move bestMove;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+
+        Analysis(Move bestMove, int score, int depth, long nodes) {
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+
+        /** Best move, or null when the side to move has none and has lost. */
+        public Move getBestMove() { return bestMove; }
+        public int getScore() { return score; }
+        public int getDepth() { return depth; }
+        public long getNodes() { return nodes; }
+    }
+}
@@ -2,53 +2,103 @@ package model;
 
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Bitboard board. Only the 32 dark squares are playable, so they are numbered
+ * row by row (four per row) and every set of pieces is a single int mask.
+ */
 public class Board {
     public static final int SIZE = 8;
-    private final Piece[][] grid = new Piece[SIZE][SIZE];
+    public static final int SQUARES = 32;
+
+    static final int EVEN_ROWS = 0x0F0F0F0F;
+    static final int ODD_ROWS = 0xF0F0F0F0;
+    static final int LEFT_EDGE = 0x10101010;
+    static final int RIGHT_EDGE = 0x08080808;
+    static final int TOP_ROW = 0x0000000F;
+    static final int BOTTOM_ROW = 0xF0000000;
+
+    static final int UP_LEFT = 0;
+    static final int UP_RIGHT = 1;
+    static final int DOWN_LEFT = 2;
+    static final int DOWN_RIGHT = 3;
+
+    private static final int MAN_VALUE = 1;
+    private static final int KING_VALUE = 3;
+    private static final int UNDO_INTS = 4;
+    /** Plain material on every square: men 1, kings 3. */
+    private static final int[][] MATERIAL = materialValues();
+
+    private int white;
+    private int black;
+    private int kings;
+    private long hash;
+    /**
+     * Value of each piece kind on each square, indexed by {@link #pieceIndex},
+     * with black's entries negated. Material unless an {@link Evaluator} has
+     * attached its own tables.
+     */
+    private int[][] squareValues = MATERIAL;
+    /** Running sum of {@link #squareValues} over the pieces, kept in step by {@link #remove} and {@link #place}. */
+    private int score;
+
+    private int[] history;
+    private long[] hashHistory;
+    private int historySize;
 
     public Board() {
         initializeBoard();
     }
 
+    private Board(Board other) {
+        this.white = other.white;
+        this.black = other.black;
+        this.kings = other.kings;
+        this.hash = other.hash;
+        this.squareValues = other.squareValues;
+        this.score = other.score;
+    }
+
     private void initializeBoard() {
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if ((row + col) % 2 == 1) {
-                    grid[row][col] = new Checker(PieceColor.BLACK, new Point(row, col));
-                }
-            }
-        }
-        for (int row = 5; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if ((row + col) % 2 == 1) {
-                    grid[row][col] = new Checker(PieceColor.WHITE, new Point(row, col));
-                }
-            }
-        }
+        black = 0x00000FFF;
+        white = 0xFFF00000;
+        kings = 0;
+        hash = computeHash();
+        score = scanScore();
     }
 
     public Piece getPiece(Point pos) {
-        return isValidPosition(pos) ? grid[pos.x][pos.y] : null;
+        int sq = square(pos);
+        if (sq < 0) return null;
+        int bit = 1 << sq;
+        if (((white | black) & bit) == 0) return null;
+        PieceColor color = (white & bit) != 0 ? PieceColor.WHITE : PieceColor.BLACK;
+        return (kings & bit) != 0 ? King.of(color) : Checker.of(color);
     }
 
     public void setPiece(Point pos, Piece piece) {
-        if (isValidPosition(pos)) {
-            grid[pos.x][pos.y] = piece;
-            if (piece != null) piece.setPosition(pos);
+        int sq = square(pos);
+        if (sq < 0) return;
+        remove(sq);
+        if (piece != null) {
+            place(sq, piece.getColor() == PieceColor.WHITE, piece instanceof King);
         }
     }
 
     public void movePiece(Point from, Point to) {
-        Piece piece = getPiece(from);
-        if (piece != null) {
-            setPiece(from, null);
-            setPiece(to, piece);
-            if (shouldPromote(piece, to)) {
-                setPiece(to, new King(piece.getColor(), to));
-            }
-        }
+        int fromSq = square(from);
+        int toSq = square(to);
+        if (fromSq < 0 || toSq < 0) return;
+        int fromBit = 1 << fromSq;
+        if (((white | black) & fromBit) == 0) return;
+        boolean isWhite = (white & fromBit) != 0;
+        int lastRow = isWhite ? TOP_ROW : BOTTOM_ROW;
+        boolean king = (kings & fromBit) != 0 || (lastRow & 1 << toSq) != 0;
+        remove(fromSq);
+        remove(toSq);
+        place(toSq, isWhite, king);
     }
 
     public void removePiece(Point pos) {
@@ -60,64 +110,351 @@ public class Board {
     }
 
     public List<Move> getValidMoves(PieceColor color) {
-        List<Move> moves = new ArrayList<>();
-        boolean capturesExist = false;
-
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Point pos = new Point(row, col);
-                Piece piece = getPiece(pos);
-                if (piece != null && piece.getColor() == color) {
-                    List<Move> pieceMoves = piece.getValidMoves(this);
-                    for (Move move : pieceMoves) {
-                        if (move.isCapture()) {
-                            if (!capturesExist) {
-                                moves.clear();
-                                capturesExist = true;
-                            }
-                            moves.add(move);
-                        } else if (!capturesExist) {
-                            moves.add(move);
-                        }
-                    }
+        MoveList list = new MoveList();
+        generateMoves(color, list);
+        List<Move> moves = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            moves.add(list.toMove(i));
+        }
+        return moves;
+    }
+
+    /**
+     * Fills {@code list} with the legal moves of {@code color}: captures only
+     * when any exist, quiet moves otherwise. Allocates nothing.
+     */
+    public int generateMoves(PieceColor color, MoveList list) {
+        list.clear();
+        int own = color == PieceColor.WHITE ? white : black;
+        addCaptures(own, color, list);
+        if (list.isEmpty()) {
+            addQuietMoves(own, color, list);
+        }
+        return list.size();
+    }
+
+    /**
+     * Whether {@code color} has a legal move, answered from whole-board shifts
+     * without generating anything: any man or king with an empty square or a
+     * single jump in one of its directions is enough.
+     */
+    public boolean hasAnyLegalMove(PieceColor color) {
+        int own = color == PieceColor.WHITE ? white : black;
+        int opp = color == PieceColor.WHITE ? black : white;
+        int empty = ~(white | black);
+        for (int dir = UP_LEFT; dir <= DOWN_RIGHT; dir++) {
+            int targets = step(movers(own, color, dir), dir);
+            if ((targets & empty) != 0 || (step(targets & opp, dir) & empty) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plays a move and pushes an undo record of the prior position, so the
+     * captures and promotion of a whole jump sequence are reverted by the
+     * matching {@link #unmakeMove()}.
+     */
+    public void makeMove(int move, int captured) {
+        if (history == null) {
+            history = new int[UNDO_INTS * 64];
+            hashHistory = new long[64];
+        } else if (UNDO_INTS * historySize == history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+            hashHistory = Arrays.copyOf(hashHistory, hashHistory.length * 2);
+        }
+        int base = UNDO_INTS * historySize;
+        history[base] = white;
+        history[base + 1] = black;
+        history[base + 2] = kings;
+        history[base + 3] = score;
+        hashHistory[historySize++] = hash;
+        applyMove(move, captured);
+    }
+
+    public void unmakeMove() {
+        if (historySize == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        hash = hashHistory[--historySize];
+        int base = UNDO_INTS * historySize;
+        white = history[base];
+        black = history[base + 1];
+        kings = history[base + 2];
+        score = history[base + 3];
+    }
+
+    public void applyMove(int move, int captured) {
+        int from = Move.from(move);
+        int fromBit = 1 << from;
+        boolean isWhite = (white & fromBit) != 0;
+        boolean king = (kings & fromBit) != 0 || Move.isPromotion(move);
+        remove(from);
+        for (int m = captured; m != 0; m &= m - 1) {
+            remove(squareOf(m));
+        }
+        place(Move.to(move), isWhite, king);
+    }
+
+    /** Plays a UI move hop by hop, so a man crowned mid-sequence finishes the jump as a king. */
+    public void applyMove(Move move) {
+        Point at = move.getFrom();
+        List<Point> path = move.getPath();
+        List<Point> captured = move.getCapturedPieces();
+        for (int i = 0; i < path.size(); i++) {
+            movePiece(at, path.get(i));
+            if (i < captured.size()) removePiece(captured.get(i));
+            at = path.get(i);
+        }
+    }
+
+    private void addCaptures(int pieces, PieceColor color, MoveList list) {
+        int opp = color == PieceColor.WHITE ? black : white;
+        int lastRow = color == PieceColor.WHITE ? TOP_ROW : BOTTOM_ROW;
+        for (int m = pieces; m != 0; m &= m - 1) {
+            int bit = m & -m;
+            int blocked = (white | black) & ~bit;
+            extendJump(list, squareOf(bit), bit, (kings & bit) != 0, 0, color, opp, blocked, lastRow, 0, 0L, 0);
+        }
+    }
+
+    /**
+     * Depth-first walk of every jump sequence from {@code at}; only sequences
+     * that cannot be extended are legal moves. Jumped pieces are removed
+     * immediately, so their squares can be crossed again, and a man that
+     * reaches the last row keeps jumping as a king.
+     */
+    private void extendJump(MoveList list, int from, int at, boolean king, int promoted, PieceColor color,
+                            int opp, int blocked, int lastRow, int captured, long path, int hops) {
+        boolean extended = false;
+        for (int dir = UP_LEFT; dir <= DOWN_RIGHT; dir++) {
+            if (!king && !isForward(color, dir)) continue;
+            int middle = step(at, dir) & opp & ~captured;
+            int landing = step(middle, dir) & ~(blocked & ~captured);
+            if (landing == 0) continue;
+            extended = true;
+            int crowned = !king && (landing & lastRow) != 0 ? Move.PROMOTION : promoted;
+            extendJump(list, from, landing, king || crowned != 0, crowned, color, opp, blocked, lastRow,
+                    captured | middle, path | (long) squareOf(landing) << 5 * hops, hops + 1);
+        }
+        if (!extended && hops > 0) {
+            int move = Move.pack(from, squareOf(at), Move.CAPTURE | promoted);
+            if (list.indexOf(move, captured) < 0) {
+                list.add(move, captured, path);
+            }
+        }
+    }
+
+    private void addQuietMoves(int pieces, PieceColor color, MoveList list) {
+        int empty = ~(white | black);
+        for (int dir = UP_LEFT; dir <= DOWN_RIGHT; dir++) {
+            for (int m = movers(pieces, color, dir); m != 0; m &= m - 1) {
+                int bit = m & -m;
+                int from = squareOf(bit);
+                boolean sliding = (kings & bit) != 0;
+                for (int to = step(bit, dir) & empty; to != 0; to = sliding ? step(to, dir) & empty : 0) {
+                    list.add(Move.pack(from, squareOf(to), promotion(bit, to, color)), 0);
                 }
             }
         }
-        return moves;
+    }
+
+    private int promotion(int fromBit, int toBit, PieceColor color) {
+        if ((kings & fromBit) != 0) return 0;
+        int lastRow = color == PieceColor.WHITE ? TOP_ROW : BOTTOM_ROW;
+        return (toBit & lastRow) != 0 ? Move.PROMOTION : 0;
     }
 
     public Board copy() {
-        Board copy = new Board();
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Point pos = new Point(row, col);
-                Piece piece = getPiece(pos);
-                if (piece != null) {
-                    copy.setPiece(pos, piece instanceof King ? 
-                        new King(piece.getColor(), pos) : 
-                        new Checker(piece.getColor(), pos));
+        return new Board(this);
+    }
+
+    /**
+     * Parses a FEN-like position such as {@code W:W21,22,K30:B1,2,K12}: the
+     * side to move, then each side's pieces as 1-based square numbers counted
+     * row by row from the top-left, with {@code K} marking kings.
+     */
+    public static Board fromFen(String fen) {
+        String[] fields = fen.trim().split(":");
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected side:white:black in " + fen);
+        }
+        Board board = new Board();
+        board.white = 0;
+        board.black = 0;
+        board.kings = 0;
+        board.score = 0;
+        for (int i = 1; i < 3; i++) {
+            String field = fields[i].trim();
+            boolean isWhite = field.startsWith("W");
+            if (!isWhite && !field.startsWith("B")) {
+                throw new IllegalArgumentException("Piece list must start with W or B: " + field);
+            }
+            for (String token : field.substring(1).split(",")) {
+                token = token.trim();
+                if (token.isEmpty()) continue;
+                boolean king = token.startsWith("K");
+                int sq = Integer.parseInt(king ? token.substring(1) : token) - 1;
+                if (sq < 0 || sq >= SQUARES) {
+                    throw new IllegalArgumentException("Square out of range: " + token);
                 }
+                board.remove(sq);
+                board.place(sq, isWhite, king);
             }
         }
-        return copy;
+        board.hash = board.computeHash();
+        return board;
+    }
+
+    public static PieceColor sideToMove(String fen) {
+        return fen.trim().startsWith("B") ? PieceColor.BLACK : PieceColor.WHITE;
     }
 
+    public String toFen(PieceColor sideToMove) {
+        return (sideToMove == PieceColor.WHITE ? "W" : "B") + ":W" + squareList(white) + ":B" + squareList(black);
+    }
+
+    private String squareList(int pieces) {
+        StringBuilder sb = new StringBuilder();
+        for (int m = pieces; m != 0; m &= m - 1) {
+            int bit = m & -m;
+            if (sb.length() > 0) sb.append(',');
+            if ((kings & bit) != 0) sb.append('K');
+            sb.append(squareOf(bit) + 1);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Sum of the square values from {@code color}'s side: material, with men
+     * counting 1 and kings 3, unless an {@link Evaluator} has attached its
+     * tables. O(1) from the running total.
+     */
     public int evaluate(PieceColor color) {
-        int score = 0;
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Piece piece = getPiece(new Point(row, col));
-                if (piece != null) {
-                    int value = piece instanceof King ? 3 : 1;
-                    score += piece.getColor() == color ? value : -value;
-                }
-            }
+        assert score == scanScore() : "square value total drifted from the board in " + toFen(color);
+        return color == PieceColor.WHITE ? score : -score;
+    }
+
+    /** Full-board recount of the square value total; the reference the running total is checked against. */
+    int scanScore() {
+        int sum = 0;
+        for (int m = white | black; m != 0; m &= m - 1) {
+            int bit = m & -m;
+            sum += squareValues[pieceIndex((white & bit) != 0, (kings & bit) != 0)][squareOf(bit)];
+        }
+        return sum;
+    }
+
+    int[][] squareValues() { return squareValues; }
+
+    /** Switches the running total to {@code values}, laid out as {@link #squareValues}. */
+    void setSquareValues(int[][] values) {
+        this.squareValues = values;
+        this.score = scanScore();
+    }
+
+    static int pieceIndex(boolean isWhite, boolean king) {
+        return (isWhite ? 0 : 2) + (king ? 1 : 0);
+    }
+
+    private static int[][] materialValues() {
+        int[][] values = new int[4][SQUARES];
+        for (int sq = 0; sq < SQUARES; sq++) {
+            values[pieceIndex(true, false)][sq] = MAN_VALUE;
+            values[pieceIndex(true, true)][sq] = KING_VALUE;
+            values[pieceIndex(false, false)][sq] = -MAN_VALUE;
+            values[pieceIndex(false, true)][sq] = -KING_VALUE;
+        }
+        return values;
+    }
+
+    /** Zobrist hash of the piece placement; combine with {@link Zobrist#side} for the side to move. */
+    public long getHash() {
+        return hash;
+    }
+
+    long computeHash() {
+        long h = 0;
+        for (int m = white | black; m != 0; m &= m - 1) {
+            int bit = m & -m;
+            h ^= Zobrist.piece((white & bit) != 0, (kings & bit) != 0, squareOf(bit));
         }
-        return score;
+        return h;
+    }
+
+    private void remove(int sq) {
+        int bit = 1 << sq;
+        if (((white | black) & bit) == 0) return;
+        boolean isWhite = (white & bit) != 0;
+        boolean king = (kings & bit) != 0;
+        hash ^= Zobrist.piece(isWhite, king, sq);
+        score -= squareValues[pieceIndex(isWhite, king)][sq];
+        white &= ~bit;
+        black &= ~bit;
+        kings &= ~bit;
+    }
+
+    private void place(int sq, boolean isWhite, boolean king) {
+        int bit = 1 << sq;
+        if (isWhite) white |= bit;
+        else black |= bit;
+        if (king) kings |= bit;
+        hash ^= Zobrist.piece(isWhite, king, sq);
+        score += squareValues[pieceIndex(isWhite, king)][sq];
+    }
+
+    /** Replaces the whole position; used by generators that enumerate positions directly. */
+    void setPosition(int white, int black, int kings) {
+        this.white = white;
+        this.black = black;
+        this.kings = kings;
+        this.hash = computeHash();
+        this.score = scanScore();
+        this.historySize = 0;
+    }
+
+    int whites() { return white; }
+    int blacks() { return black; }
+    int kings() { return kings; }
+
+    /** Pieces of {@code color} allowed to step in {@code dir}: men only forward, kings both ways. */
+    int movers(int own, PieceColor color, int dir) {
+        return isForward(color, dir) ? own : own & kings;
+    }
+
+    static boolean isForward(PieceColor color, int dir) {
+        return color == PieceColor.WHITE ? dir <= UP_RIGHT : dir >= DOWN_LEFT;
+    }
+
+    static int step(int mask, int dir) {
+        return switch (dir) {
+            case UP_LEFT -> (mask & EVEN_ROWS) >>> 4 | (mask & ODD_ROWS & ~LEFT_EDGE) >>> 5;
+            case UP_RIGHT -> (mask & EVEN_ROWS & ~RIGHT_EDGE) >>> 3 | (mask & ODD_ROWS) >>> 4;
+            case DOWN_LEFT -> (mask & EVEN_ROWS) << 4 | (mask & ODD_ROWS & ~LEFT_EDGE) << 3;
+            default -> (mask & EVEN_ROWS & ~RIGHT_EDGE) << 5 | (mask & ODD_ROWS) << 4;
+        };
+    }
+
+    static int square(Point pos) {
+        if (pos == null || pos.x < 0 || pos.x >= SIZE || pos.y < 0 || pos.y >= SIZE) return -1;
+        if (((pos.x + pos.y) & 1) == 0) return -1;
+        return pos.x * 4 + pos.y / 2;
+    }
+
+    static int row(int sq) {
+        return sq >> 2;
+    }
+
+    static int col(int sq) {
+        return 2 * (sq & 3) + (((sq >> 2) & 1) == 0 ? 1 : 0);
+    }
+
+    static int squareOf(int bit) {
+        return Integer.numberOfTrailingZeros(bit);
     }
 
-    private boolean shouldPromote(Piece piece, Point to) {
-        return piece.getColor() == PieceColor.WHITE && to.x == 0 ||
-               piece.getColor() == PieceColor.BLACK && to.x == SIZE - 1;
+    static Point toPoint(int sq) {
+        return new Point(row(sq), col(sq));
     }
-}
\ No newline at end of file
+}
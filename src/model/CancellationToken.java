@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Cooperative cancellation for an asynchronous AI move. Searches poll it and
+ * stop at their next check; cancelling is one-way and safe from any thread.
+ */
+public final class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
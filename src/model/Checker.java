@@ -1,25 +1,32 @@
 package model;
 
-import java.awt.Point;
 import java.util.ArrayList;
 import java.util.List;
 
-public class Checker extends Piece {
-    public Checker(PieceColor color, Point position) {
-        super(color, position);
+public final class Checker extends Piece {
+    public static final Checker WHITE = new Checker(PieceColor.WHITE);
+    public static final Checker BLACK = new Checker(PieceColor.BLACK);
+
+    private Checker(PieceColor color) {
+        super(color);
+    }
+
+    public static Checker of(PieceColor color) {
+        return color == PieceColor.WHITE ? WHITE : BLACK;
     }
 
     @Override
-    public List<Move> getValidMoves(Board board) {
+    protected List<Move> getValidMoves(Board board, int sq) {
         List<Move> moves = new ArrayList<>();
-        int dir = color == PieceColor.WHITE ? -1 : 1;
+        int left = color == PieceColor.WHITE ? Board.UP_LEFT : Board.DOWN_LEFT;
+        int right = left + 1;
 
-        addCaptureMove(board, moves, dir, -1);
-        addCaptureMove(board, moves, dir, 1);
+        addCaptureMove(board, moves, sq, left);
+        addCaptureMove(board, moves, sq, right);
         if (moves.isEmpty()) {
-            addRegularMove(board, moves, dir, -1);
-            addRegularMove(board, moves, dir, 1);
+            addRegularMove(board, moves, sq, left);
+            addRegularMove(board, moves, sq, right);
         }
         return moves;
     }
-}
\ No newline at end of file
+}
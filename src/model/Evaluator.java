@@ -0,0 +1,161 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Positional evaluation driven by per-square tables. Material, piece-square
+ * bonuses, back-rank guard, center control and tempo are folded into one
+ * table per color and piece type when the weights are loaded. A board the
+ * tables are {@linkplain #attach attached} to keeps their sum as it changes,
+ * so a leaf only costs a few bitboard steps for mobility.
+ * <p>
+ * Weights come from a properties file so they can be retuned without a
+ * rebuild: {@code man}, {@code king}, {@code backRank}, {@code center},
+ * {@code tempo}, {@code mobility}, and {@code manSquares} / {@code kingSquares}
+ * as 32 comma-separated values seen from white's side (square 0 is white's
+ * promotion row). Missing keys keep their defaults.
+ */
+public final class Evaluator {
+    private static final Logger LOGGER = Logger.getLogger(Evaluator.class.getName());
+    private static final int CENTER = 0x00666600;
+
+    private static volatile Evaluator defaultEvaluator;
+
+    /** Laid out as {@link Board#pieceIndex} expects, with black's entries negated. */
+    private final int[][] squareValues = new int[4][Board.SQUARES];
+    private final int mobility;
+
+    private Evaluator(Properties weights) {
+        int man = weight(weights, "man", 100);
+        int king = weight(weights, "king", 300);
+        int backRank = weight(weights, "backRank", 6);
+        int center = weight(weights, "center", 4);
+        int tempo = weight(weights, "tempo", 2);
+        int[] manSquares = squares(weights, "manSquares");
+        int[] kingSquares = squares(weights, "kingSquares");
+        this.mobility = weight(weights, "mobility", 2);
+
+        int[] whiteMen = squareValues[Board.pieceIndex(true, false)];
+        int[] whiteKings = squareValues[Board.pieceIndex(true, true)];
+        int[] blackMen = squareValues[Board.pieceIndex(false, false)];
+        int[] blackKings = squareValues[Board.pieceIndex(false, true)];
+        for (int sq = 0; sq < Board.SQUARES; sq++) {
+            int bit = 1 << sq;
+            int centerBonus = (CENTER & bit) != 0 ? center : 0;
+            int guard = (Board.BOTTOM_ROW & bit) != 0 ? backRank : 0;
+            int advance = Board.SIZE - 1 - Board.row(sq);
+            whiteMen[sq] = man + manSquares[sq] + centerBonus + guard + tempo * advance;
+            whiteKings[sq] = king + kingSquares[sq] + centerBonus;
+            // Black's tables are white's turned half a turn: square sq maps to 31 - sq.
+            blackMen[Board.SQUARES - 1 - sq] = -whiteMen[sq];
+            blackKings[Board.SQUARES - 1 - sq] = -whiteKings[sq];
+        }
+    }
+
+    public static Evaluator defaults() {
+        return new Evaluator(new Properties());
+    }
+
+    public static Evaluator load(Path file) throws IOException {
+        Properties weights = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            weights.load(reader);
+        }
+        return new Evaluator(weights);
+    }
+
+    /**
+     * Weights from the file named by the {@code checkers.evalWeights} system
+     * property, or the built-in defaults if it is unset or unreadable.
+     */
+    public static Evaluator getDefault() {
+        if (defaultEvaluator == null) {
+            synchronized (Evaluator.class) {
+                if (defaultEvaluator == null) {
+                    String file = System.getProperty("checkers.evalWeights");
+                    Evaluator evaluator = defaults();
+                    if (file != null) {
+                        try {
+                            evaluator = load(Paths.get(file));
+                            LOGGER.info("Loaded evaluation weights from " + file);
+                        } catch (IOException | IllegalArgumentException e) {
+                            LOGGER.warning("Could not load evaluation weights " + file + ": " + e.getMessage());
+                        }
+                    }
+                    defaultEvaluator = evaluator;
+                }
+            }
+        }
+        return defaultEvaluator;
+    }
+
+    /** Makes {@code board} keep the running sum of this evaluator's tables. */
+    void attach(Board board) {
+        board.setSquareValues(squareValues);
+    }
+
+    /** Score from {@code color}'s side; O(1) plus mobility on an attached board. */
+    public int evaluate(Board board, PieceColor color) {
+        int white = board.whites();
+        int black = board.blacks();
+        int score;
+        if (board.squareValues() == squareValues) {
+            score = board.evaluate(PieceColor.WHITE);
+        } else {
+            int kings = board.kings();
+            score = 0;
+            for (int m = white | black; m != 0; m &= m - 1) {
+                int sq = Integer.numberOfTrailingZeros(m);
+                score += squareValues[Board.pieceIndex((white >>> sq & 1) != 0, (kings >>> sq & 1) != 0)][sq];
+            }
+        }
+        if (mobility != 0) {
+            int empty = ~(white | black);
+            score += mobility * (steps(board, white, PieceColor.WHITE, empty) - steps(board, black, PieceColor.BLACK, empty));
+        }
+        return color == PieceColor.WHITE ? score : -score;
+    }
+
+    /** Single-step moves available to {@code own}; sliding kings count once per direction. */
+    private static int steps(Board board, int own, PieceColor color, int empty) {
+        int count = 0;
+        for (int dir = Board.UP_LEFT; dir <= Board.DOWN_RIGHT; dir++) {
+            count += Integer.bitCount(Board.step(board.movers(own, color, dir), dir) & empty);
+        }
+        return count;
+    }
+
+    private static int weight(Properties weights, String key, int fallback) {
+        String value = weights.getProperty(key);
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Weight " + key + " is not an integer: " + value);
+        }
+    }
+
+    private static int[] squares(Properties weights, String key) {
+        int[] table = new int[Board.SQUARES];
+        String value = weights.getProperty(key);
+        if (value == null) return table;
+        String[] entries = value.split(",");
+        if (entries.length != Board.SQUARES) {
+            throw new IllegalArgumentException(key + " needs " + Board.SQUARES + " values, found " + entries.length);
+        }
+        for (int sq = 0; sq < Board.SQUARES; sq++) {
+            try {
+                table[sq] = Integer.parseInt(entries[sq].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(key + " has a non-integer entry: " + entries[sq]);
+            }
+        }
+        return table;
+    }
+}
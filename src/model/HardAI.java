@@ -1,29 +1,375 @@
 package model;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
 
 public class HardAI implements AI {
-    private static final int DEPTH = 4;
+    private static final Logger LOGGER = Logger.getLogger(HardAI.class.getName());
+    public static final int MAX_DEPTH = 64;
+    public static final int DEFAULT_HASH_MB = Integer.getInteger("checkers.hashMb", 16);
+    public static final int DEFAULT_THREADS = Integer.getInteger("checkers.searchThreads", 1);
+    /** Quiescence nodes allowed below each depth-0 leaf before its remaining leaves take the static evaluation. */
+    public static final long QUIESCENCE_BUDGET = Long.getLong("checkers.quiescenceNodes", 20_000);
+    private static final int MAX_QUIESCENCE_PLY = 32;
+    private static final int INFINITY = 1_000_000;
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int PROMOTION_SCORE = 1 << 21;
+    private static final int KILLER_SCORE = 1 << 20;
+    private static final int HISTORY_LIMIT = 1 << 16;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    static final int TABLEBASE_WIN = 100_000;
+    /** Scores past this are decided results, counted in plies from the root of the search. */
+    private static final int WIN_BOUND = TABLEBASE_WIN / 2;
 
+    private final int maxDepth;
+    private final long timeBudgetMillis;
+    private final TranspositionTable table;
+    private final Searcher[] searchers;
+    private final ExecutorService helpers;
+
+    private volatile Evaluator evaluator = Evaluator.getDefault();
+    private volatile SearchStatistics statistics = SearchStatistics.getDefault();
+    private volatile Tablebase tablebase = Tablebase.getDefault();
+    private volatile OpeningBook openingBook = AIDifficulty.HARD.usesOpeningBook() ? OpeningBook.getDefault() : null;
+    private final Object searchLock = new Object();
+    private ExecutorService background;
+    private Future<?> pondering;
+    private StopCondition ponderStop;
+    private long ponderKey;
+    private long ponderStart;
+    private long ponderHits;
+    private long ponderMisses;
+
+    private volatile long searchStart;
+    private volatile Consumer<SearchProgress> progress;
+
+    public HardAI() {
+        this(MAX_DEPTH, AIDifficulty.HARD.getThinkTimeMillis());
+    }
+
+    /** Searches to exactly {@code maxDepth} with no time limit. */
+    public HardAI(int maxDepth) {
+        this(maxDepth, 0);
+    }
+
+    public HardAI(int maxDepth, long timeBudgetMillis) {
+        this(maxDepth, timeBudgetMillis, DEFAULT_HASH_MB, DEFAULT_THREADS);
+    }
+
+    /**
+     * @param maxDepth deepest iteration to run
+     * @param timeBudgetMillis time allowed per move, or 0 to always finish {@code maxDepth}
+     * @param threads search threads; more than one runs Lazy SMP helpers sharing the table
+     */
+    public HardAI(int maxDepth, long timeBudgetMillis, int hashMegabytes, int threads) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + MAX_DEPTH);
+        }
+        if (timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is required");
+        }
+        this.maxDepth = maxDepth;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.table = new TranspositionTable(hashMegabytes);
+        this.searchers = new Searcher[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher();
+        }
+        this.helpers = threads == 1 ? null : Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "HardAI-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getMaxDepth() { return maxDepth; }
+    public long getTimeBudgetMillis() { return timeBudgetMillis; }
+    public int getThreads() { return searchers.length; }
+    public TranspositionTable getTranspositionTable() { return table; }
+    public int getCompletedDepth() { return searchers[0].completedDepth; }
+
+    /** Root score of the last completed iteration, from the moving side's point of view. */
+    public int getScore() { return searchers[0].bestScore; }
+    public Evaluator getEvaluator() { return evaluator; }
+    public SearchStatistics getStatistics() { return statistics; }
+
+    /** Where finished searches are reported, or null to report nothing. */
+    public void setStatistics(SearchStatistics statistics) { this.statistics = statistics; }
+    public void setEvaluator(Evaluator evaluator) { this.evaluator = evaluator; }
+    public Tablebase getTablebase() { return tablebase; }
+
+    /** Endgame tablebases probed once few enough pieces remain, or null to search everything. */
+    public void setTablebase(Tablebase tablebase) { this.tablebase = tablebase; }
+    public OpeningBook getOpeningBook() { return openingBook; }
+    public void setOpeningBook(OpeningBook openingBook) { this.openingBook = openingBook; }
+
+    /** Capture-only nodes visited past the nominal depth by all threads during the last search. */
+    public long getQuiescenceNodes() {
+        long nodes = 0;
+        for (Searcher searcher : searchers) nodes += searcher.quiescenceNodes;
+        return nodes;
+    }
+
+    /** Share of beta cutoffs in the last search that came from the first move tried. */
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = 0;
+        long first = 0;
+        for (Searcher searcher : searchers) {
+            cutoffs += searcher.cutoffs;
+            first += searcher.firstMoveCutoffs;
+        }
+        return cutoffs == 0 ? 0 : (double) first / cutoffs;
+    }
+
+    /** Deepest ply the main thread reached, quiescence included. */
+    public int getSelectiveDepth() { return searchers[0].selectiveDepth; }
+
+    /** Nodes visited by all threads during the last search. */
+    public long getNodes() {
+        long nodes = 0;
+        for (Searcher searcher : searchers) nodes += searcher.nodes;
+        return nodes;
+    }
+
+    public double getHashHitRate() {
+        long probes = 0;
+        long hits = 0;
+        for (Searcher searcher : searchers) {
+            probes += searcher.probe.getProbes();
+            hits += searcher.probe.getHits();
+        }
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    /**
+     * Iterative deepening: searches depth 1, 2, ... until {@code maxDepth} or
+     * the time budget runs out, and plays the best move of the last iteration
+     * that finished. Helper threads run the same loop on their own board,
+     * staggered by a ply, and only contribute through the shared table.
+     */
     @Override
     public Move makeMove(Board board, PieceColor color) {
-        List<Move> moves = board.getValidMoves(color);
-        if (moves.isEmpty()) return null;
+        return searchMove(board, color, budgetDeadline(), null, null, true);
+    }
+
+    /**
+     * Always searches, even when there is a single legal move or a book move,
+     * so {@link #getScore()} describes {@code board} afterwards.
+     */
+    Move analyze(Board board, PieceColor color) {
+        return searchMove(board, color, budgetDeadline(), null, null, false);
+    }
+
+    /**
+     * Searches on a background thread. {@code deadline} replaces the time
+     * budget when given; cancelling {@code token} or the returned future stops
+     * the search at its next time check; {@code token} may be null. A new
+     * search waits for any still running.
+     */
+    @Override
+    public CompletableFuture<Move> makeMoveAsync(Board board, PieceColor color, Instant deadline,
+                                                 CancellationToken token, Consumer<SearchProgress> progress) {
+        CancellationToken cancel = token != null ? token : new CancellationToken();
+        Board position = board.copy();
+        long stopAt = deadline == null ? budgetDeadline()
+                : System.nanoTime() + Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        CompletableFuture<Move> future = new CompletableFuture<>();
+        future.whenComplete((move, error) -> {
+            if (future.isCancelled()) cancel.cancel();
+        });
+        background().execute(() -> {
+            try {
+                Move move = searchMove(position, color, stopAt, cancel, progress, true);
+                if (cancel.isCancelled()) future.cancel(false);
+                else future.complete(move);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private long budgetDeadline() {
+        return timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+    }
+
+    /** One search at a time, so a search that was just cancelled stops before the next one takes over the searchers. */
+    private Move searchMove(Board board, PieceColor color, long stopAt, CancellationToken token,
+                            Consumer<SearchProgress> listener, boolean shortcuts) {
+        synchronized (searchLock) {
+            Searcher main = searchers[0];
+            boolean ponderHit = finishPondering(board.getHash() ^ Zobrist.side(color), stopAt);
+            // Moves played without searching report zero work, not the previous search's.
+            for (Searcher searcher : searchers) searcher.resetCounters();
+            if (board.generateMoves(color, main.rootMoves) == 0) return null;
+            if (shortcuts) {
+                if (ponderHit) {
+                    LOGGER.fine(() -> "Ponder hit at depth " + main.completedDepth);
+                    return main.rootMoves.toMove(main.rootMoves.indexOf(main.bestMove, main.bestCaptured));
+                }
+                if (main.rootMoves.size() == 1) return main.rootMoves.toMove(0);
+                OpeningBook book = openingBook;
+                Move bookMove = book == null ? null : book.lookup(board, color);
+                if (bookMove != null) {
+                    LOGGER.fine("Playing book move");
+                    return bookMove;
+                }
+            }
+
+            long start = System.nanoTime();
+            searchStart = start;
+            progress = listener;
+            table.newSearch();
+            try {
+                runSearch(board, color, new StopCondition(stopAt, token));
+            } finally {
+                progress = null;
+            }
 
-        Move bestMove = null;
-        int bestValue = Integer.MIN_VALUE;
+            long elapsedNanos = System.nanoTime() - start;
+            SearchStatistics stats = statistics;
+            if (stats != null) {
+                long probes = 0;
+                long hits = 0;
+                long cutoffs = 0;
+                long firstMoveCutoffs = 0;
+                for (Searcher searcher : searchers) {
+                    probes += searcher.probe.getProbes();
+                    hits += searcher.probe.getHits();
+                    cutoffs += searcher.cutoffs;
+                    firstMoveCutoffs += searcher.firstMoveCutoffs;
+                }
+                stats.record(getNodes(), getQuiescenceNodes(), main.completedDepth, probes, hits, cutoffs,
+                        firstMoveCutoffs, elapsedNanos);
+            }
+            long elapsed = elapsedNanos / 1_000_000;
+            LOGGER.fine(() -> String.format(
+                    "depth %d/%d, %d nodes (%d quiescence) in %d ms, %d threads, TT hits %.1f%%, first-move cutoffs %.1f%%",
+                    main.completedDepth, main.selectiveDepth, getNodes(), getQuiescenceNodes(), elapsed,
+                    searchers.length, getHashHitRate() * 100, getFirstMoveCutoffRate() * 100));
+            return main.rootMoves.toMove(main.rootMoves.indexOf(main.bestMove, main.bestCaptured));
+        }
+    }
 
-        for (Move move : moves) {
-            Board copy = board.copy();
-            applyMove(copy, move);
-            int value = minimax(copy, DEPTH - 1, false, color);
-            if (value > bestValue) {
-                bestValue = value;
-                bestMove = move;
+    /** Runs the main search and its helpers until {@code limit} is reached. */
+    private void runSearch(Board board, PieceColor color, StopCondition limit) {
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < searchers.length; i++) {
+            Searcher helper = searchers[i];
+            int firstDepth = 1 + (i & 1);
+            running.add(helpers.submit(() -> helper.search(board, color, firstDepth, limit)));
+        }
+        searchers[0].search(board, color, 1, limit);
+        limit.stop();
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOGGER.warning("Helper search failed: " + e.getCause());
             }
         }
-        return bestMove;
+    }
+
+    /**
+     * Searches in the background while {@code opponent} thinks. The reply
+     * expected from the last search's table entry is assumed, and the position
+     * after it is searched with no deadline until the next {@link #makeMove}
+     * or {@link #stopPondering}. On a hit that search is reused; on a miss it
+     * is dropped and only its table entries remain. Waits for any search
+     * still running, since pondering reuses its searchers.
+     */
+    @Override
+    public void ponder(Board board, PieceColor opponent) {
+        synchronized (searchLock) {
+            startPondering(board, opponent);
+        }
+    }
+
+    private synchronized void startPondering(Board board, PieceColor opponent) {
+        stopPondering();
+        MoveList replies = new MoveList();
+        if (board.generateMoves(opponent, replies) == 0) return;
+        TranspositionTable.Probe expected = new TranspositionTable.Probe();
+        int reply = 0;
+        if (table.probe(board.getHash() ^ Zobrist.side(opponent), expected)) {
+            reply = Math.max(0, replies.indexOf(expected.move(), expected.captured()));
+        }
+
+        Board position = board.copy();
+        position.makeMove(replies.get(reply), replies.captured(reply));
+        PieceColor own = opponent.opposite();
+        if (position.generateMoves(own, replies) == 0) return;
+
+        ponderKey = position.getHash() ^ Zobrist.side(own);
+        ponderStart = System.nanoTime();
+        StopCondition limit = new StopCondition(Long.MAX_VALUE, null);
+        ponderStop = limit;
+        table.newSearch();
+        pondering = background().submit(() -> runSearch(position, own, limit));
+    }
+
+    /** Thread pool for pondering and asynchronous searches, created on first use. */
+    private synchronized ExecutorService background() {
+        if (background == null) {
+            background = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "HardAI-search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return background;
+    }
+
+    @Override
+    public synchronized void stopPondering() {
+        if (pondering == null) return;
+        ponderStop.stop();
+        try {
+            pondering.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.warning("Ponder search failed: " + e.getCause());
+        }
+        pondering = null;
+        ponderStop = null;
+    }
+
+    public long getPonderHits() { return ponderHits; }
+    public long getPonderMisses() { return ponderMisses; }
+
+    /**
+     * Stops any ponder search and reports whether it already answers the
+     * position with key {@code key}: it pondered that position and either
+     * finished {@code maxDepth} or ran at least as long as the search due to
+     * stop at {@code stopAt} still could.
+     */
+    private synchronized boolean finishPondering(long key, long stopAt) {
+        if (pondering == null) return false;
+        long now = System.nanoTime();
+        long pondered = now - ponderStart;
+        stopPondering();
+        if (key != ponderKey) {
+            ponderMisses++;
+            return false;
+        }
+        ponderHits++;
+        int depth = searchers[0].completedDepth;
+        return depth > 0 && (depth >= maxDepth || stopAt != Long.MAX_VALUE && pondered >= stopAt - now);
     }
 
     @Override
@@ -31,35 +377,280 @@ public class HardAI implements AI {
         return AIDifficulty.HARD;
     }
 
-    private int minimax(Board board, int depth, boolean isMaximizing, PieceColor aiColor) {
-        if (depth == 0 || board.getValidMoves(aiColor).isEmpty() || board.getValidMoves(aiColor.opposite()).isEmpty()) {
-            return board.evaluate(aiColor);
+    /** When one run of the searchers must end; each search and ponder search has its own. */
+    private static final class StopCondition {
+        private final long deadline;
+        private final CancellationToken token;
+        private volatile boolean stopped;
+
+        StopCondition(long deadline, CancellationToken token) {
+            this.deadline = deadline;
+            this.token = token;
         }
 
-        PieceColor currentColor = isMaximizing ? aiColor : aiColor.opposite();
-        List<Move> moves = board.getValidMoves(currentColor);
-        int bestValue = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        void stop() { stopped = true; }
 
-        for (Move move : moves) {
-            Board copy = board.copy();
-            applyMove(copy, move);
-            int value = minimax(copy, depth - 1, !isMaximizing, aiColor);
-            bestValue = isMaximizing ? Math.max(bestValue, value) : Math.min(bestValue, value);
+        boolean reached() {
+            return stopped || token != null && token.isCancelled() || System.nanoTime() > deadline;
         }
-        return bestValue;
     }
 
-    private void applyMove(Board board, Move move) {
-        board.movePiece(move.getFrom(), move.getTo());
-        if (move.isCapture()) {
-            board.removePiece(move.getCaptured());
-            Piece piece = board.getPiece(move.getTo());
-            List<Move> captures = piece.getValidMoves(board).stream()
-                    .filter(Move::isCapture)
-                    .collect(Collectors.toList()); 
-            if (!captures.isEmpty()) {
-                applyMove(board, captures.get(0));
+    /** Search state owned by one thread. */
+    private final class Searcher {
+        private final MoveList rootMoves = new MoveList();
+        private final MoveList[] moveLists = new MoveList[maxDepth];
+        private final MoveList[] captureLists = new MoveList[MAX_QUIESCENCE_PLY];
+        private final TranspositionTable.Probe probe = new TranspositionTable.Probe();
+        /** Two quiet moves per ply that last caused a cutoff there. */
+        private final int[][] killers = new int[maxDepth + 1][2];
+        /** Cutoff credit for quiet moves by color, origin and destination square. */
+        private final int[][] history = new int[2][Board.SQUARES * Board.SQUARES];
+
+        private long nodes;
+        private long cutoffs;
+        private long firstMoveCutoffs;
+        private long quiescenceNodes;
+        private long quiescenceLimit;
+        private int selectiveDepth;
+        private boolean aborted;
+        private int completedDepth;
+        private int bestMove;
+        private int bestCaptured;
+        private int bestScore;
+        private StopCondition limit;
+
+        Searcher() {
+            for (int i = 0; i < moveLists.length; i++) {
+                moveLists[i] = new MoveList();
+            }
+            for (int i = 0; i < captureLists.length; i++) {
+                captureLists[i] = new MoveList();
+            }
+        }
+
+        void search(Board position, PieceColor color, int firstDepth, StopCondition limit) {
+            this.limit = limit;
+            Board board = position.copy();
+            evaluator.attach(board);
+            MoveList moves = rootMoves;
+            board.generateMoves(color, moves);
+            resetCounters();
+            for (int[] slots : killers) {
+                slots[0] = 0;
+                slots[1] = 0;
+            }
+            ageHistory();
+            aborted = false;
+            completedDepth = 0;
+            bestMove = moves.get(0);
+            bestCaptured = moves.captured(0);
+            bestScore = 0;
+            long key = board.getHash() ^ Zobrist.side(color);
+
+            for (int depth = firstDepth; depth <= maxDepth; depth++) {
+                orderMoves(board, moves, table.probe(key, probe), 0, color);
+                int bestIndex = 0;
+                int alpha = -INFINITY;
+                for (int i = 0; i < moves.size(); i++) {
+                    board.makeMove(moves.get(i), moves.captured(i));
+                    int value = -negamax(board, depth - 1, 1, -INFINITY, -alpha, color.opposite());
+                    board.unmakeMove();
+                    if (aborted) break;
+                    if (value > alpha) {
+                        alpha = value;
+                        bestIndex = i;
+                    }
+                }
+                if (aborted) break;
+                bestMove = moves.get(bestIndex);
+                bestCaptured = moves.captured(bestIndex);
+                bestScore = alpha;
+                completedDepth = depth;
+                Consumer<SearchProgress> listener = progress;
+                if (listener != null && this == searchers[0]) {
+                    listener.accept(new SearchProgress(depth, moves.toMove(bestIndex), alpha, getNodes(),
+                            (System.nanoTime() - searchStart) / 1_000_000));
+                }
+                table.store(key, depth, TranspositionTable.EXACT, alpha, bestMove, bestCaptured);
+            }
+        }
+
+        void resetCounters() {
+            nodes = 0;
+            quiescenceNodes = 0;
+            cutoffs = 0;
+            firstMoveCutoffs = 0;
+            selectiveDepth = 0;
+            probe.resetCounters();
+        }
+
+        private int negamax(Board board, int depth, int ply, int alpha, int beta, PieceColor color) {
+            if (++nodes % TIME_CHECK_INTERVAL == 0 && limit.reached()) {
+                aborted = true;
+            }
+            if (aborted) return 0;
+            Tablebase endgames = tablebase;
+            if (endgames != null && endgames.covers(board)) {
+                int value = endgames.probe(board, color);
+                if (value != Tablebase.UNKNOWN) {
+                    // Faster wins and slower losses score better, counting the plies already played.
+                    return Tablebase.isWin(value) ? TABLEBASE_WIN - ply - Tablebase.plies(value)
+                            : Tablebase.isLoss(value) ? -TABLEBASE_WIN + ply + Tablebase.plies(value)
+                            : Tablebase.DRAW;
+                }
+            }
+            if (depth == 0) {
+                quiescenceLimit = quiescenceNodes + QUIESCENCE_BUDGET;
+                return quiesce(board, 0, ply, alpha, beta, color);
+            }
+            MoveList moves = moveLists[depth];
+            if (board.generateMoves(color, moves) == 0) {
+                return blockedScore(ply);
+            }
+
+            long key = board.getHash() ^ Zobrist.side(color);
+            boolean hit = table.probe(key, probe);
+            if (hit && probe.depth() >= depth) {
+                int score = fromTable(probe.score(), ply);
+                switch (probe.bound()) {
+                    case TranspositionTable.EXACT: return score;
+                    case TranspositionTable.LOWER_BOUND: alpha = Math.max(alpha, score); break;
+                    default: beta = Math.min(beta, score); break;
+                }
+                if (alpha >= beta) return score;
+            }
+
+            orderMoves(board, moves, hit, ply, color);
+            int originalAlpha = alpha;
+            int bestValue = -INFINITY;
+            int bestIndex = 0;
+
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i), moves.captured(i));
+                int value = -negamax(board, depth - 1, ply + 1, -beta, -alpha, color.opposite());
+                board.unmakeMove();
+                if (aborted) return 0;
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestIndex = i;
+                }
+                alpha = Math.max(alpha, value);
+                if (alpha >= beta) {
+                    cutoffs++;
+                    if (i == 0) firstMoveCutoffs++;
+                    if (moves.captured(i) == 0) rememberQuietCutoff(moves.get(i), depth, ply, color);
+                    break;
+                }
+            }
+
+            int bound = bestValue <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : bestValue >= beta ? TranspositionTable.LOWER_BOUND
+                    : TranspositionTable.EXACT;
+            table.store(key, depth, bound, toTable(bestValue, ply), moves.get(bestIndex), moves.captured(bestIndex));
+            return bestValue;
+        }
+
+        /**
+         * Resolves pending captures past the nominal depth so leaves are never
+         * scored in the middle of an exchange. Captures are mandatory, so
+         * there is no stand-pat: when the side to move has a capture, every
+         * legal move is searched. Each depth-0 leaf gets its own node budget,
+         * so one runaway exchange cannot starve the leaves searched after it.
+         */
+        private int quiesce(Board board, int qply, int ply, int alpha, int beta, PieceColor color) {
+            selectiveDepth = Math.max(selectiveDepth, ply);
+            if (qply == MAX_QUIESCENCE_PLY || quiescenceNodes >= quiescenceLimit) {
+                return evaluator.evaluate(board, color);
+            }
+            MoveList moves = captureLists[qply];
+            if (board.generateMoves(color, moves) == 0) {
+                return blockedScore(ply);
+            }
+            if (!Move.isCapture(moves.get(0))) {
+                return evaluator.evaluate(board, color);
+            }
+            orderMoves(board, moves, false, -1, color);
+            int bestValue = -INFINITY;
+            for (int i = 0; i < moves.size(); i++) {
+                if (++nodes % TIME_CHECK_INTERVAL == 0 && limit.reached()) {
+                    aborted = true;
+                }
+                if (aborted) return 0;
+                quiescenceNodes++;
+                board.makeMove(moves.get(i), moves.captured(i));
+                int value = -quiesce(board, qply + 1, ply + 1, -beta, -alpha, color.opposite());
+                board.unmakeMove();
+                if (aborted) return 0;
+                bestValue = Math.max(bestValue, value);
+                alpha = Math.max(alpha, value);
+                if (alpha >= beta) break;
+            }
+            return bestValue;
+        }
+
+        /**
+         * The side to move has no legal move and has lost, scored like a
+         * tablebase loss so a later loss is preferred.
+         */
+        private int blockedScore(int ply) {
+            return -TABLEBASE_WIN + ply;
+        }
+
+        /** Decided scores go into the table relative to their node, so a hit at another ply keeps its distance. */
+        private int toTable(int score, int ply) {
+            return score > WIN_BOUND ? score + ply : score < -WIN_BOUND ? score - ply : score;
+        }
+
+        private int fromTable(int score, int ply) {
+            return score > WIN_BOUND ? score - ply : score < -WIN_BOUND ? score + ply : score;
+        }
+
+        /**
+         * Hash move first. Captures are mandatory, so a node holds either only
+         * jumps, ranked by pieces and kings taken, or only quiet moves, ranked
+         * promotions, then this ply's killers, then by history.
+         */
+        private void orderMoves(Board board, MoveList moves, boolean hit, int ply, PieceColor color) {
+            int[] plyKillers = ply >= 0 ? killers[ply] : null;
+            int[] colorHistory = history[color.ordinal()];
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                int captured = moves.captured(i);
+                int score;
+                if (captured != 0) {
+                    score = 10 * Integer.bitCount(captured) + 5 * Integer.bitCount(captured & board.kings());
+                    if (Move.isPromotion(move)) score += 8;
+                } else {
+                    score = colorHistory[Move.from(move) * Board.SQUARES + Move.to(move)];
+                    if (Move.isPromotion(move)) score += PROMOTION_SCORE;
+                    if (plyKillers != null && move == plyKillers[0]) score += KILLER_SCORE;
+                    else if (plyKillers != null && move == plyKillers[1]) score += KILLER_SCORE - 1;
+                }
+                if (hit && move == probe.move() && captured == probe.captured()) score += TT_MOVE_SCORE;
+                moves.setScore(i, score);
+            }
+            moves.sortByScore();
+        }
+
+        private void rememberQuietCutoff(int move, int depth, int ply, PieceColor color) {
+            int[] slots = killers[ply];
+            if (slots[0] != move) {
+                slots[1] = slots[0];
+                slots[0] = move;
+            }
+            int[] colorHistory = history[color.ordinal()];
+            int index = Move.from(move) * Board.SQUARES + Move.to(move);
+            colorHistory[index] += depth * depth;
+            if (colorHistory[index] >= HISTORY_LIMIT) ageHistory();
+        }
+
+        /** Halves every history score, so older searches fade and scores stay below the killer band. */
+        private void ageHistory() {
+            for (int[] colorHistory : history) {
+                for (int i = 0; i < colorHistory.length; i++) {
+                    colorHistory[i] >>= 1;
+                }
             }
         }
     }
-}
\ No newline at end of file
+}
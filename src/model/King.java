@@ -1,33 +1,35 @@
 package model;
 
-import java.awt.Point;
 import java.util.ArrayList;
 import java.util.List;
 
-public class King extends Piece {
-    public King(PieceColor color, Point position) {
-        super(color, position);
+public final class King extends Piece {
+    public static final King WHITE = new King(PieceColor.WHITE);
+    public static final King BLACK = new King(PieceColor.BLACK);
+
+    private King(PieceColor color) {
+        super(color);
+    }
+
+    public static King of(PieceColor color) {
+        return color == PieceColor.WHITE ? WHITE : BLACK;
     }
 
     @Override
-    public List<Move> getValidMoves(Board board) {
+    protected List<Move> getValidMoves(Board board, int sq) {
         List<Move> moves = new ArrayList<>();
-
-        int[][] directions = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
-        for (int[] dir : directions) {
-            addCaptureMove(board, moves, dir[0], dir[1]);
-            addSlidingMoves(board, moves, dir[0], dir[1]);
+        for (int dir = Board.UP_LEFT; dir <= Board.DOWN_RIGHT; dir++) {
+            addCaptureMove(board, moves, sq, dir);
+            addSlidingMoves(board, moves, sq, dir);
         }
         return moves;
     }
 
-    private void addSlidingMoves(Board board, List<Move> moves, int rowDir, int colDir) {
-        int row = position.x + rowDir;
-        int col = position.y + colDir;
-        while (board.isValidPosition(new Point(row, col)) && board.getPiece(new Point(row, col)) == null) {
-            moves.add(new Move(new Point(position), new Point(row, col)));
-            row += rowDir;
-            col += colDir;
+    private void addSlidingMoves(Board board, List<Move> moves, int sq, int dir) {
+        int occupied = board.whites() | board.blacks();
+        for (int to : SquareTables.RAYS[sq][dir]) {
+            if ((occupied >>> to & 1) != 0) break;
+            moves.add(new Move(Board.toPoint(sq), Board.toPoint(to)));
         }
     }
-}
\ No newline at end of file
+}
@@ -3,10 +3,16 @@ package model;
 import java.util.List;
 
 public class MediumAI implements AI {
+    private final OpeningBook openingBook = AIDifficulty.MEDIUM.usesOpeningBook() ? OpeningBook.getDefault() : null;
+
     @Override
     public Move makeMove(Board board, PieceColor color) {
         List<Move> moves = board.getValidMoves(color);
         if (moves.isEmpty()) return null;
+        if (openingBook != null) {
+            Move bookMove = openingBook.lookup(board, color);
+            if (bookMove != null) return bookMove;
+        }
 
         return moves.stream()
                 .filter(Move::isCapture)
@@ -1,24 +1,79 @@
 package model;
 
 import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Point-based view of a move for the UI. The engine works on packed ints:
+ * bits 0-4 hold the origin square, bits 5-9 the destination square, and the
+ * remaining bits carry {@link #CAPTURE} and {@link #PROMOTION} flags. A
+ * capture is a complete jump sequence; its captured squares travel beside the
+ * packed int as a bitmask and its landing squares as a packed path.
+ */
 public class Move {
+    public static final int CAPTURE = 1 << 10;
+    public static final int PROMOTION = 1 << 11;
+    private static final int SQUARE_MASK = 0x1F;
+
     private final Point from;
     private final Point to;
-    private final Point captured;
+    private final List<Point> path;
+    private final List<Point> capturedPieces;
 
     public Move(Point from, Point to) {
         this(from, to, null);
     }
 
     public Move(Point from, Point to, Point captured) {
+        this(from, List.of(to), captured == null ? List.of() : List.of(captured));
+    }
+
+    private Move(Point from, List<Point> path, List<Point> capturedPieces) {
         this.from = from;
-        this.to = to;
-        this.captured = captured;
+        this.to = path.get(path.size() - 1);
+        this.path = path;
+        this.capturedPieces = capturedPieces;
     }
 
     public Point getFrom() { return from; }
     public Point getTo() { return to; }
-    public Point getCaptured() { return captured; }
-    public boolean isCapture() { return captured != null; }
-}
\ No newline at end of file
+    public Point getCaptured() { return capturedPieces.isEmpty() ? null : capturedPieces.get(0); }
+    public boolean isCapture() { return !capturedPieces.isEmpty(); }
+
+    /** Squares the piece lands on, in order; a single entry unless this is a multi-jump. */
+    public List<Point> getPath() { return path; }
+    public List<Point> getCapturedPieces() { return capturedPieces; }
+
+    public static int pack(int from, int to, int flags) {
+        return from | to << 5 | flags;
+    }
+
+    public static int from(int move) { return move & SQUARE_MASK; }
+    public static int to(int move) { return move >>> 5 & SQUARE_MASK; }
+    public static boolean isCapture(int move) { return (move & CAPTURE) != 0; }
+    public static boolean isPromotion(int move) { return (move & PROMOTION) != 0; }
+
+    /** Landing square of jump {@code hop} in a path packed five bits per hop. */
+    public static int hop(long path, int hop) {
+        return (int) (path >>> 5 * hop) & SQUARE_MASK;
+    }
+
+    public static Move of(int move, int captured, long path) {
+        Point from = Board.toPoint(from(move));
+        int hops = Integer.bitCount(captured);
+        if (hops == 0) {
+            return new Move(from, List.of(Board.toPoint(to(move))), List.of());
+        }
+        List<Point> landings = new ArrayList<>(hops);
+        List<Point> jumped = new ArrayList<>(hops);
+        Point previous = from;
+        for (int i = 0; i < hops; i++) {
+            Point landing = Board.toPoint(hop(path, i));
+            jumped.add(new Point((previous.x + landing.x) / 2, (previous.y + landing.y) / 2));
+            landings.add(landing);
+            previous = landing;
+        }
+        return new Move(from, List.copyOf(landings), List.copyOf(jumped));
+    }
+}
@@ -0,0 +1,93 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of packed moves (see {@link Move#pack}) with the captured
+ * squares of each move kept as a bitmask alongside, plus the landing squares
+ * of jump sequences. Callers keep one per ply and refill it, so move
+ * generation does not allocate.
+ */
+public final class MoveList {
+    private int[] moves;
+    private int[] captures;
+    private long[] paths;
+    private int[] scores;
+    private int size;
+
+    public MoveList() {
+        this(64);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+        captures = new int[capacity];
+        paths = new long[capacity];
+        scores = new int[capacity];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move, int captured) {
+        add(move, captured, 0L);
+    }
+
+    public void add(int move, int captured, long path) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+            captures = Arrays.copyOf(captures, size * 2);
+            paths = Arrays.copyOf(paths, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        moves[size] = move;
+        captures[size] = captured;
+        paths[size] = path;
+        scores[size] = 0;
+        size++;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int get(int index) { return moves[index]; }
+    public int captured(int index) { return captures[index]; }
+    public long path(int index) { return paths[index]; }
+
+    public int indexOf(int move, int captured) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move && captures[i] == captured) return i;
+        }
+        return -1;
+    }
+
+    public void setScore(int index, int score) {
+        scores[index] = score;
+    }
+
+    /** Stable insertion sort, highest score first. Lists are short enough that this beats anything fancier. */
+    public void sortByScore() {
+        for (int i = 1; i < size; i++) {
+            int move = moves[i];
+            int captured = captures[i];
+            long path = paths[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                captures[j + 1] = captures[j];
+                paths[j + 1] = paths[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            captures[j + 1] = captured;
+            paths[j + 1] = path;
+            scores[j + 1] = score;
+        }
+    }
+
+    public Move toMove(int index) {
+        return Move.of(moves[index], captures[index], paths[index]);
+    }
+}
@@ -0,0 +1,158 @@
+package model;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * Opening book built by {@link OpeningBookBuilder}. The file is a 16-byte
+ * header followed by fixed-size entries sorted by position key, one entry per
+ * (position, move) pair, and lookups binary-search a read-only memory map.
+ * <p>
+ * The key is the Zobrist hash of the position with the side to move mixed in,
+ * so a book stays valid for as long as {@link Zobrist}'s seed does not change.
+ */
+public final class OpeningBook {
+    private static final Logger LOGGER = Logger.getLogger(OpeningBook.class.getName());
+
+    static final int MAGIC = 0x434B4F42;
+    static final int HEADER_BYTES = 16;
+    /** key, move, captured, weight, games, wins, draws. */
+    static final int ENTRY_BYTES = 32;
+
+    private static volatile OpeningBook defaultBook;
+    private static volatile boolean defaultLoaded;
+
+    private final MappedByteBuffer buffer;
+    private final int entries;
+    private final long games;
+
+    private OpeningBook(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.entries = buffer.getInt(4);
+        this.games = buffer.getLong(8);
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            if (channel.size() != HEADER_BYTES + (long) buffer.getInt(4) * ENTRY_BYTES) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * The book named by the {@code checkers.openingBook} system property, or
+     * null if it is unset or unreadable.
+     */
+    public static OpeningBook getDefault() {
+        if (!defaultLoaded) {
+            synchronized (OpeningBook.class) {
+                if (!defaultLoaded) {
+                    String file = System.getProperty("checkers.openingBook");
+                    if (file != null) {
+                        try {
+                            defaultBook = open(Paths.get(file));
+                            LOGGER.info("Loaded opening book with " + defaultBook.entries + " moves from " + file);
+                        } catch (IOException e) {
+                            LOGGER.warning("Could not load opening book " + file + ": " + e.getMessage());
+                        }
+                    }
+                    defaultLoaded = true;
+                }
+            }
+        }
+        return defaultBook;
+    }
+
+    public int getEntries() { return entries; }
+    public long getGames() { return games; }
+
+    /** Every book move for the position with its statistics, best weight first. */
+    public List<BookMove> getMoves(Board board, PieceColor color) {
+        List<BookMove> moves = new ArrayList<>();
+        MoveList legal = new MoveList();
+        board.generateMoves(color, legal);
+        long key = board.getHash() ^ Zobrist.side(color);
+        for (int i = firstEntry(key); i < entries && keyAt(i) == key; i++) {
+            int offset = HEADER_BYTES + i * ENTRY_BYTES;
+            int index = legal.indexOf(buffer.getInt(offset + 8), buffer.getInt(offset + 12));
+            if (index >= 0) {
+                moves.add(new BookMove(legal.toMove(index), buffer.getInt(offset + 16), buffer.getInt(offset + 20),
+                        buffer.getInt(offset + 24), buffer.getInt(offset + 28)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Picks a book move at random in proportion to its weight, or returns
+     * null when the position is not in the book.
+     */
+    public Move lookup(Board board, PieceColor color) {
+        List<BookMove> moves = getMoves(board, color);
+        long total = 0;
+        for (BookMove move : moves) total += move.getWeight();
+        if (total == 0) return null;
+        long pick = ThreadLocalRandom.current().nextLong(total);
+        for (BookMove move : moves) {
+            pick -= move.getWeight();
+            if (pick < 0) return move.getMove();
+        }
+        return null;
+    }
+
+    private long keyAt(int entry) {
+        return buffer.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+    }
+
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** A move stored in the book with the results of the games that played it. */
+    public static final class BookMove {
+        private final Move move;
+        private final int weight;
+        private final int games;
+        private final int wins;
+        private final int draws;
+
+        BookMove(Move move, int weight, int games, int wins, int draws) {
+            this.move = move;
+            this.weight = weight;
+            this.games = games;
+            this.wins = wins;
+            this.draws = draws;
+        }
+
+        public Move getMove() { return move; }
+        public int getWeight() { return weight; }
+        public int getGames() { return games; }
+        public int getWins() { return wins; }
+        public int getDraws() { return draws; }
+        public int getLosses() { return games - wins - draws; }
+    }
+}
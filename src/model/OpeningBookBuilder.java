@@ -0,0 +1,111 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates finished games into an {@link OpeningBook}. Every position in
+ * the first {@code maxPly} plies of a game counts the move played there and
+ * whether the side that played it went on to win, draw or lose.
+ */
+public class OpeningBookBuilder {
+    private final int maxPly;
+    private final int minGames;
+    private final Map<Long, Map<Long, int[]>> positions = new HashMap<>();
+    private final MoveList moves = new MoveList();
+    private long games;
+
+    /**
+     * @param maxPly how deep into each game positions are recorded
+     * @param minGames moves played in fewer games than this are left out of the book
+     */
+    public OpeningBookBuilder(int maxPly, int minGames) {
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("The book must cover at least one ply");
+        }
+        this.maxPly = maxPly;
+        this.minGames = Math.max(1, minGames);
+    }
+
+    public long getGames() { return games; }
+    public int getPositions() { return positions.size(); }
+
+    /**
+     * Adds a game played from {@code start}.
+     *
+     * @param winner the side that won, or null for a draw
+     */
+    public void addGame(Board start, PieceColor firstToMove, List<Move> played, PieceColor winner) {
+        Board board = start.copy();
+        PieceColor color = firstToMove;
+        for (int ply = 0; ply < Math.min(maxPly, played.size()); ply++) {
+            board.generateMoves(color, moves);
+            int index = indexOf(moves, played.get(ply));
+            if (index < 0) {
+                throw new IllegalArgumentException("Move " + ply + " of the game is not legal");
+            }
+            long key = board.getHash() ^ Zobrist.side(color);
+            long move = (long) moves.captured(index) << 32 | moves.get(index) & 0xFFFFFFFFL;
+            int[] stats = positions.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(move, m -> new int[3]);
+            stats[0]++;
+            if (winner == color) {
+                stats[1]++;
+            } else if (winner == null) {
+                stats[2]++;
+            }
+            board.makeMove(moves.get(index), moves.captured(index));
+            color = color.opposite();
+        }
+        games++;
+    }
+
+    /** Writes the book sorted by key; the file is replaced only once it is complete. */
+    public void write(Path file) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        for (Map.Entry<Long, Map<Long, int[]>> position : positions.entrySet()) {
+            for (Map.Entry<Long, int[]> move : position.getValue().entrySet()) {
+                int[] stats = move.getValue();
+                if (stats[0] >= minGames) {
+                    // Half points scored with the move, so a move that only ever lost is never picked.
+                    long weight = 2L * stats[1] + stats[2];
+                    entries.add(new long[] {position.getKey(), move.getKey(), weight, stats[0], stats[1], stats[2]});
+                }
+            }
+        }
+        entries.sort(Comparator.<long[]>comparingLong(e -> e[0]).thenComparing(e -> -e[2]));
+
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + entries.size() * OpeningBook.ENTRY_BYTES);
+        buffer.putInt(OpeningBook.MAGIC).putInt(entries.size()).putLong(games);
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]).putInt((int) entry[1]).putInt((int) (entry[1] >>> 32))
+                    .putInt((int) Math.min(Integer.MAX_VALUE, entry[2]))
+                    .putInt((int) entry[3]).putInt((int) entry[4]).putInt((int) entry[5]);
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int indexOf(MoveList moves, Move move) {
+        for (int i = 0; i < moves.size(); i++) {
+            Move candidate = moves.toMove(i);
+            if (candidate.getFrom().equals(move.getFrom()) && candidate.getPath().equals(move.getPath())) return i;
+        }
+        return -1;
+    }
+}
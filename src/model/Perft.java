@@ -0,0 +1,100 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth. Used as a
+ * correctness oracle for {@link Board#generateMoves} and as a throughput
+ * benchmark. With bulk counting the last ply is counted from the size of
+ * the generated list instead of being played.
+ */
+public class Perft {
+    private final MoveList[] moveLists;
+    private final boolean bulk;
+
+    public Perft(int maxDepth, boolean bulk) {
+        this.moveLists = new MoveList[maxDepth + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        this.bulk = bulk;
+    }
+
+    public long count(Board board, PieceColor color, int depth) {
+        if (depth == 0) return 1;
+        MoveList moves = moveLists[depth];
+        int size = board.generateMoves(color, moves);
+        if (bulk && depth == 1) return size;
+        long nodes = 0;
+        for (int i = 0; i < size; i++) {
+            board.makeMove(moves.get(i), moves.captured(i));
+            nodes += count(board, color.opposite(), depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /** Node count below each root move, in generation order. */
+    public List<Division> divide(Board board, PieceColor color, int depth) {
+        MoveList moves = new MoveList();
+        board.generateMoves(color, moves);
+        List<Division> divisions = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i), moves.captured(i));
+            long nodes = depth <= 1 ? 1 : count(board, color.opposite(), depth - 1);
+            board.unmakeMove();
+            divisions.add(new Division(moves.toMove(i), nodes));
+        }
+        return divisions;
+    }
+
+    /** Splits the root moves over {@code threads} workers, each with its own board and buffers. */
+    public static long countParallel(Board board, PieceColor color, int depth, boolean bulk, int threads)
+            throws InterruptedException {
+        if (depth <= 1 || threads <= 1) {
+            return new Perft(depth, bulk).count(board.copy(), color, depth);
+        }
+        MoveList moves = new MoveList();
+        board.generateMoves(color, moves);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                int captured = moves.captured(i);
+                results.add(pool.submit(() -> {
+                    Board child = board.copy();
+                    child.makeMove(move, captured);
+                    return new Perft(depth - 1, bulk).count(child, color.opposite(), depth - 1);
+                }));
+            }
+            long nodes = 0;
+            for (Future<Long> result : results) {
+                nodes += result.get();
+            }
+            return nodes;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static final class Division {
+        private final Move move;
+        private final long nodes;
+
+        Division(Move move, long nodes) {
+            this.move = move;
+            this.nodes = nodes;
+        }
+
+        public Move getMove() { return move; }
+        public long getNodes() { return nodes; }
+    }
+}
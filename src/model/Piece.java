@@ -3,43 +3,52 @@ package model;
 import java.awt.Point;
 import java.util.List;
 
+/**
+ * Immutable, shared piece kinds: {@link Checker} and {@link King} each have
+ * one instance per color. A piece's square lives on the {@link Board} only.
+ */
 public abstract class Piece {
     protected final PieceColor color;
-    protected Point position;
 
-    public Piece(PieceColor color, Point position) {
+    protected Piece(PieceColor color) {
         this.color = color;
-        this.position = position;
     }
 
     public PieceColor getColor() { return color; }
-    public Point getPosition() { return position; }
-    public void setPosition(Point position) { this.position = position; }
-    public abstract List<Move> getValidMoves(Board board);
 
-    protected boolean canCapture(Board board, int rowDir, int colDir) {
-        Point jumpPos = new Point(position.x + rowDir * 2, position.y + colDir * 2);
-        if (!board.isValidPosition(jumpPos)) return false;
+    /** Single-hop moves of this piece standing on {@code square} of {@code board}. */
+    public List<Move> getValidMoves(Board board, Point square) {
+        int sq = Board.square(square);
+        if (sq < 0) {
+            throw new IllegalArgumentException("Not a playable square: " + square);
+        }
+        return getValidMoves(board, sq);
+    }
+
+    protected abstract List<Move> getValidMoves(Board board, int sq);
 
-        Point middlePos = new Point(position.x + rowDir, position.y + colDir);
-        Piece middlePiece = board.getPiece(middlePos);
-        return middlePiece != null && middlePiece.getColor() != color && board.getPiece(jumpPos) == null;
+    protected boolean canCapture(Board board, int sq, int dir) {
+        int landing = SquareTables.JUMP[sq][dir];
+        if (landing < 0) return false;
+        int opponents = color == PieceColor.WHITE ? board.blacks() : board.whites();
+        int occupied = board.whites() | board.blacks();
+        return (opponents >>> SquareTables.NEIGHBOR[sq][dir] & 1) != 0 && (occupied >>> landing & 1) == 0;
     }
 
-    protected void addCaptureMove(Board board, List<Move> moves, int rowDir, int colDir) {
-        if (canCapture(board, rowDir, colDir)) {
+    protected void addCaptureMove(Board board, List<Move> moves, int sq, int dir) {
+        if (canCapture(board, sq, dir)) {
             moves.add(new Move(
-                new Point(position),
-                new Point(position.x + rowDir * 2, position.y + colDir * 2),
-                new Point(position.x + rowDir, position.y + colDir)
+                Board.toPoint(sq),
+                Board.toPoint(SquareTables.JUMP[sq][dir]),
+                Board.toPoint(SquareTables.NEIGHBOR[sq][dir])
             ));
         }
     }
 
-    protected void addRegularMove(Board board, List<Move> moves, int rowDir, int colDir) {
-        Point newPos = new Point(position.x + rowDir, position.y + colDir);
-        if (board.isValidPosition(newPos) && board.getPiece(newPos) == null) {
-            moves.add(new Move(new Point(position), newPos));
+    protected void addRegularMove(Board board, List<Move> moves, int sq, int dir) {
+        int to = SquareTables.NEIGHBOR[sq][dir];
+        if (to >= 0 && ((board.whites() | board.blacks()) >>> to & 1) == 0) {
+            moves.add(new Move(Board.toPoint(sq), Board.toPoint(to)));
         }
     }
-}
\ No newline at end of file
+}
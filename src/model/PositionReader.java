@@ -0,0 +1,110 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams records written by {@link PositionWriter}, either a whole file or
+ * one split of it. The current record is read through getters, so a scan
+ * allocates nothing per position.
+ */
+public class PositionReader implements Closeable {
+    private static final int BUFFER_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * PositionWriter.RECORD_BYTES);
+    private long position;
+    private final long end;
+
+    private int white;
+    private int black;
+    private int kings;
+    private int score;
+    private PieceColor sideToMove;
+    private int result;
+
+    private PositionReader(FileChannel channel, long firstRecord, long records) {
+        this.channel = channel;
+        this.position = firstRecord * PositionWriter.RECORD_BYTES;
+        this.end = position + records * PositionWriter.RECORD_BYTES;
+        buffer.limit(0);
+    }
+
+    public static PositionReader open(Path file) throws IOException {
+        return open(file, 0, count(file));
+    }
+
+    /** Reads {@code records} records starting at record {@code firstRecord}. */
+    public static PositionReader open(Path file, long firstRecord, long records) throws IOException {
+        long available = count(file);
+        if (firstRecord < 0 || records < 0 || firstRecord + records > available) {
+            throw new IllegalArgumentException("Records " + firstRecord + "+" + records + " outside " + available);
+        }
+        return new PositionReader(FileChannel.open(file, StandardOpenOption.READ), firstRecord, records);
+    }
+
+    public static long count(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size % PositionWriter.RECORD_BYTES != 0) {
+            throw new IOException("Truncated position file: " + file);
+        }
+        return size / PositionWriter.RECORD_BYTES;
+    }
+
+    /** Splits a file into {@code parts} record ranges of near-equal size, as {first, count} pairs. */
+    public static long[][] splits(Path file, int parts) throws IOException {
+        long records = count(file);
+        long[][] ranges = new long[parts][];
+        for (int i = 0; i < parts; i++) {
+            long first = records * i / parts;
+            ranges[i] = new long[] {first, records * (i + 1) / parts - first};
+        }
+        return ranges;
+    }
+
+    /** Advances to the next record; false at the end of the range. */
+    public boolean next() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (position >= end) return false;
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) throw new IOException("Position file ended early");
+            }
+            position += buffer.limit();
+            buffer.flip();
+        }
+        white = buffer.getInt();
+        black = buffer.getInt();
+        kings = buffer.getInt();
+        score = buffer.getShort();
+        sideToMove = buffer.get() == 0 ? PieceColor.WHITE : PieceColor.BLACK;
+        result = buffer.get();
+        return true;
+    }
+
+    public int getWhite() { return white; }
+    public int getBlack() { return black; }
+    public int getKings() { return kings; }
+    public int getScore() { return score; }
+    public PieceColor getSideToMove() { return sideToMove; }
+
+    /** Game result from white's side: 1 white won, 0 draw, -1 black won. */
+    public int getResult() { return result; }
+
+    /** Sets up {@code board} with the current record's position. */
+    public void load(Board board) {
+        board.setPosition(white, black, kings);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,73 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends labelled positions to a binary file for offline evaluation tuning.
+ * Every record is {@link #RECORD_BYTES} long, and the file has no header, so
+ * files can be appended to, concatenated, and split at any record boundary
+ * for parallel reading with {@link PositionReader}.
+ * <p>
+ * A record holds the white, black and king bitboards (ints), the search
+ * score from the side to move's point of view (short), the side to move
+ * (byte, 0 white) and the game result from white's side (byte: 1, 0 or -1).
+ */
+public class PositionWriter implements Closeable {
+    public static final int RECORD_BYTES = 16;
+    private static final int BUFFER_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+    private long written;
+
+    private PositionWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /** Opens {@code file} for appending, creating it if needed. */
+    public static PositionWriter append(Path file) throws IOException {
+        return new PositionWriter(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND));
+    }
+
+    /**
+     * @param score search score for {@code sideToMove}, clamped to a short
+     * @param winner side that won the game, or null for a draw
+     */
+    public void write(Board board, PieceColor sideToMove, int score, PieceColor winner) throws IOException {
+        write(board.whites(), board.blacks(), board.kings(), sideToMove, score, winner);
+    }
+
+    public void write(int white, int black, int kings, PieceColor sideToMove, int score, PieceColor winner)
+            throws IOException {
+        if (!buffer.hasRemaining()) flush();
+        buffer.putInt(white).putInt(black).putInt(kings)
+                .putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)))
+                .put((byte) (sideToMove == PieceColor.WHITE ? 0 : 1))
+                .put((byte) (winner == null ? 0 : winner == PieceColor.WHITE ? 1 : -1));
+        written++;
+    }
+
+    /** Records written through this writer. */
+    public long getWritten() { return written; }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
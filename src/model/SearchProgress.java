@@ -0,0 +1,30 @@
+package model;
+
+/** Snapshot reported after each completed iteration of an asynchronous search. */
+public final class SearchProgress {
+    private final int depth;
+    private final Move bestMove;
+    private final int score;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    public SearchProgress(int depth, Move bestMove, int score, long nodes, long elapsedMillis) {
+        this.depth = depth;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getDepth() { return depth; }
+    public Move getBestMove() { return bestMove; }
+    public int getScore() { return score; }
+    public long getNodes() { return nodes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, best %s -> %s, score %d, %d nodes, %d ms", depth, bestMove.getFrom(),
+                bestMove.getTo(), score, nodes, elapsedMillis);
+    }
+}
@@ -0,0 +1,170 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Running totals over every HardAI search in the process. Searches count in
+ * their own per-thread fields and hand the totals over once per move, so the
+ * search loop itself pays nothing. Statistics are off unless
+ * {@code -Dcheckers.searchStats=true}. When on, they are published as the
+ * MBean {@value #OBJECT_NAME}, and a summary is logged every
+ * {@code checkers.searchStats.logSeconds} seconds (60 by default, 0 for never).
+ */
+public final class SearchStatistics implements SearchStatisticsMXBean {
+    private static final Logger LOGGER = Logger.getLogger(SearchStatistics.class.getName());
+    public static final String OBJECT_NAME = "model:type=SearchStatistics";
+
+    private static volatile SearchStatistics defaultStatistics;
+    private static volatile boolean defaultLoaded;
+
+    private long searches;
+    private long nodes;
+    private long quiescenceNodes;
+    private long depthSum;
+    private int lastDepth;
+    private long hashProbes;
+    private long hashHits;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private double branchingSum;
+    private long branchingSamples;
+    private long searchNanos;
+    private long lastMoveNanos;
+    private long loggedSearches;
+
+    /**
+     * The process-wide statistics, registered and logging on first use, or
+     * null when they are disabled.
+     */
+    public static SearchStatistics getDefault() {
+        if (!defaultLoaded) {
+            synchronized (SearchStatistics.class) {
+                if (!defaultLoaded) {
+                    if (Boolean.getBoolean("checkers.searchStats")) {
+                        SearchStatistics statistics = new SearchStatistics();
+                        statistics.register();
+                        statistics.startLogging(Long.getLong("checkers.searchStats.logSeconds", 60));
+                        defaultStatistics = statistics;
+                    }
+                    defaultLoaded = true;
+                }
+            }
+        }
+        return defaultStatistics;
+    }
+
+    private void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            LOGGER.warning("Could not register search statistics MBean: " + e.getMessage());
+        }
+    }
+
+    private void startLogging(long seconds) {
+        if (seconds <= 0) return;
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "SearchStatistics-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::logSummary, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /** Adds one finished search; called once per move with that search's totals. */
+    synchronized void record(long nodes, long quiescenceNodes, int depth, long hashProbes, long hashHits,
+                             long cutoffs, long firstMoveCutoffs, long elapsedNanos) {
+        searches++;
+        this.nodes += nodes;
+        this.quiescenceNodes += quiescenceNodes;
+        depthSum += depth;
+        lastDepth = depth;
+        this.hashProbes += hashProbes;
+        this.hashHits += hashHits;
+        this.cutoffs += cutoffs;
+        this.firstMoveCutoffs += firstMoveCutoffs;
+        if (depth > 0 && nodes > 1) {
+            branchingSum += Math.pow(nodes, 1.0 / depth);
+            branchingSamples++;
+        }
+        searchNanos += elapsedNanos;
+        lastMoveNanos = elapsedNanos;
+    }
+
+    private void logSummary() {
+        String summary;
+        synchronized (this) {
+            if (searches == loggedSearches) return;
+            loggedSearches = searches;
+            summary = String.format("%d searches, %,d nodes at %,.0f nps, depth %.1f, TT hits %.1f%%,"
+                    + " first-move cutoffs %.1f%%, branching %.2f, %.0f ms/move", searches, nodes,
+                    getNodesPerSecond(), getAverageDepth(), getHashHitRate() * 100, getFirstMoveCutoffRate() * 100,
+                    getBranchingFactor(), getAverageMoveMillis());
+        }
+        LOGGER.info(summary);
+    }
+
+    @Override public synchronized long getSearches() { return searches; }
+    @Override public synchronized long getNodes() { return nodes; }
+    @Override public synchronized long getQuiescenceNodes() { return quiescenceNodes; }
+    @Override public synchronized int getLastDepth() { return lastDepth; }
+    @Override public synchronized long getHashProbes() { return hashProbes; }
+    @Override public synchronized long getHashHits() { return hashHits; }
+    @Override public synchronized long getCutoffs() { return cutoffs; }
+    @Override public synchronized long getLastMoveMillis() { return lastMoveNanos / 1_000_000; }
+
+    @Override
+    public synchronized double getNodesPerSecond() {
+        return searchNanos == 0 ? 0 : nodes * 1e9 / searchNanos;
+    }
+
+    @Override
+    public synchronized double getAverageDepth() {
+        return searches == 0 ? 0 : (double) depthSum / searches;
+    }
+
+    @Override
+    public synchronized double getHashHitRate() {
+        return hashProbes == 0 ? 0 : (double) hashHits / hashProbes;
+    }
+
+    @Override
+    public synchronized double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /** Mean effective branching factor, nodes^(1/depth), over searches that finished a depth. */
+    @Override
+    public synchronized double getBranchingFactor() {
+        return branchingSamples == 0 ? 0 : branchingSum / branchingSamples;
+    }
+
+    @Override
+    public synchronized double getAverageMoveMillis() {
+        return searches == 0 ? 0 : searchNanos / 1e6 / searches;
+    }
+
+    @Override
+    public synchronized void reset() {
+        searches = 0;
+        nodes = 0;
+        quiescenceNodes = 0;
+        depthSum = 0;
+        lastDepth = 0;
+        hashProbes = 0;
+        hashHits = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        branchingSum = 0;
+        branchingSamples = 0;
+        searchNanos = 0;
+        lastMoveNanos = 0;
+        loggedSearches = 0;
+    }
+}
@@ -0,0 +1,20 @@
+package model;
+
+/** Management view of {@link SearchStatistics}. */
+public interface SearchStatisticsMXBean {
+    long getSearches();
+    long getNodes();
+    long getQuiescenceNodes();
+    double getNodesPerSecond();
+    int getLastDepth();
+    double getAverageDepth();
+    long getHashProbes();
+    long getHashHits();
+    double getHashHitRate();
+    long getCutoffs();
+    double getFirstMoveCutoffRate();
+    double getBranchingFactor();
+    long getLastMoveMillis();
+    double getAverageMoveMillis();
+    void reset();
+}
@@ -0,0 +1,44 @@
+package model;
+
+/**
+ * Per-square geometry of the 32 playable squares, computed once. Directions
+ * are the {@link Board} constants {@code UP_LEFT} to {@code DOWN_RIGHT}, and
+ * -1 marks a step that leaves the board.
+ */
+final class SquareTables {
+    /** Adjacent square in each direction. */
+    static final int[][] NEIGHBOR = new int[Board.SQUARES][4];
+    /** Landing square of a jump in each direction; the jumped square is the neighbor. */
+    static final int[][] JUMP = new int[Board.SQUARES][4];
+    /** Every square in each direction, nearest first. */
+    static final int[][][] RAYS = new int[Board.SQUARES][4][];
+
+    private static final int[] ROW_STEP = {-1, -1, 1, 1};
+    private static final int[] COL_STEP = {-1, 1, -1, 1};
+
+    static {
+        for (int sq = 0; sq < Board.SQUARES; sq++) {
+            int row = Board.row(sq);
+            int col = Board.col(sq);
+            for (int dir = Board.UP_LEFT; dir <= Board.DOWN_RIGHT; dir++) {
+                NEIGHBOR[sq][dir] = square(row + ROW_STEP[dir], col + COL_STEP[dir]);
+                JUMP[sq][dir] = square(row + 2 * ROW_STEP[dir], col + 2 * COL_STEP[dir]);
+                int length = 0;
+                while (square(row + (length + 1) * ROW_STEP[dir], col + (length + 1) * COL_STEP[dir]) >= 0) {
+                    length++;
+                }
+                RAYS[sq][dir] = new int[length];
+                for (int i = 0; i < length; i++) {
+                    RAYS[sq][dir][i] = square(row + (i + 1) * ROW_STEP[dir], col + (i + 1) * COL_STEP[dir]);
+                }
+            }
+        }
+    }
+
+    private SquareTables() {}
+
+    private static int square(int row, int col) {
+        if (row < 0 || row >= Board.SIZE || col < 0 || col >= Board.SIZE) return -1;
+        return row * 4 + col / 2;
+    }
+}
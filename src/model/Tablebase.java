@@ -0,0 +1,185 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * Read side of the endgame tablebases built by {@link TablebaseGenerator}.
+ * There is one file per material slice (white men, white kings, black men,
+ * black kings). Each file is a 16-byte header followed by one big-endian
+ * short per position, and is probed through a read-only memory map.
+ * <p>
+ * A position's index is the colex rank of each piece group's square set,
+ * mixed radix over the four groups, times two for the side to move. Values
+ * are from the side to move's point of view: {@code v > 0} wins in {@code v}
+ * plies, {@code v < 0} loses in {@code -v - 1} plies, and 0 is a draw.
+ */
+public final class Tablebase {
+    private static final Logger LOGGER = Logger.getLogger(Tablebase.class.getName());
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final int DRAW = 0;
+    public static final int MAX_SUPPORTED_PIECES = 6;
+
+    static final int MAGIC = 0x434B5442;
+    static final int HEADER_BYTES = 16;
+    private static final int GROUP_LIMIT = MAX_SUPPORTED_PIECES + 1;
+    private static final String EXTENSION = ".tb";
+    static final int[][] BINOMIAL = new int[Board.SQUARES + 1][GROUP_LIMIT + 1];
+
+    static {
+        for (int n = 0; n <= Board.SQUARES; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, GROUP_LIMIT); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private static volatile Tablebase defaultTablebase;
+    private static volatile boolean defaultLoaded;
+
+    private final MappedByteBuffer[] slices = new MappedByteBuffer[GROUP_LIMIT * GROUP_LIMIT * GROUP_LIMIT * GROUP_LIMIT];
+    private int maxPieces;
+
+    private Tablebase() {}
+
+    /** Maps every finished slice file in {@code directory}. */
+    public static Tablebase open(Path directory) throws IOException {
+        Tablebase tablebase = new Tablebase();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                for (Path file : files) {
+                    tablebase.map(file);
+                }
+            }
+        }
+        return tablebase;
+    }
+
+    /**
+     * Tablebases from the directory named by the {@code checkers.tablebases}
+     * system property, or null if it is unset or unreadable.
+     */
+    public static Tablebase getDefault() {
+        if (!defaultLoaded) {
+            synchronized (Tablebase.class) {
+                if (!defaultLoaded) {
+                    String dir = System.getProperty("checkers.tablebases");
+                    if (dir != null) {
+                        try {
+                            defaultTablebase = open(Paths.get(dir));
+                            LOGGER.info("Loaded tablebases up to " + defaultTablebase.maxPieces + " pieces from " + dir);
+                        } catch (IOException e) {
+                            LOGGER.warning("Could not load tablebases from " + dir + ": " + e.getMessage());
+                        }
+                    }
+                    defaultLoaded = true;
+                }
+            }
+        }
+        return defaultTablebase;
+    }
+
+    public int getMaxPieces() { return maxPieces; }
+
+    public boolean covers(Board board) {
+        return Integer.bitCount(board.whites() | board.blacks()) <= maxPieces;
+    }
+
+    public int probe(Board board, PieceColor sideToMove) {
+        return probe(board.whites(), board.blacks(), board.kings(), sideToMove);
+    }
+
+    int probe(int white, int black, int kings, PieceColor sideToMove) {
+        int whiteMen = white & ~kings;
+        int whiteKings = white & kings;
+        int blackMen = black & ~kings;
+        int blackKings = black & kings;
+        int wm = Integer.bitCount(whiteMen);
+        int wk = Integer.bitCount(whiteKings);
+        int bm = Integer.bitCount(blackMen);
+        int bk = Integer.bitCount(blackKings);
+        if (wm + wk + bm + bk > maxPieces) return UNKNOWN;
+        if ((sideToMove == PieceColor.WHITE ? white : black) == 0) return loss(0);
+        if (wm + wk == 0 || bm + bk == 0) return UNKNOWN;
+        MappedByteBuffer slice = slices[sliceId(wm, wk, bm, bk)];
+        if (slice == null) return UNKNOWN;
+        long index = index(whiteMen, whiteKings, blackMen, blackKings, wm, wk, bm, bk, sideToMove);
+        return slice.getShort(HEADER_BYTES + (int) (index * 2));
+    }
+
+    void map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            int wm = buffer.get(4);
+            int wk = buffer.get(5);
+            int bm = buffer.get(6);
+            int bk = buffer.get(7);
+            if (buffer.getLong(8) != size(wm, wk, bm, bk) || channel.size() != HEADER_BYTES + 2 * size(wm, wk, bm, bk)) {
+                throw new IOException("Truncated tablebase file: " + file);
+            }
+            slices[sliceId(wm, wk, bm, bk)] = buffer;
+            maxPieces = Math.max(maxPieces, wm + wk + bm + bk);
+        }
+    }
+
+    static ByteBuffer header(int wm, int wk, int bm, int bk) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).put((byte) wm).put((byte) wk).put((byte) bm).put((byte) bk).putLong(size(wm, wk, bm, bk));
+        header.flip();
+        return header;
+    }
+
+    static String fileName(int wm, int wk, int bm, int bk) {
+        return "wm" + wm + "wk" + wk + "bm" + bm + "bk" + bk + EXTENSION;
+    }
+
+    static long size(int wm, int wk, int bm, int bk) {
+        return 2L * BINOMIAL[Board.SQUARES][wm] * BINOMIAL[Board.SQUARES][wk]
+                * BINOMIAL[Board.SQUARES][bm] * BINOMIAL[Board.SQUARES][bk];
+    }
+
+    static long index(int whiteMen, int whiteKings, int blackMen, int blackKings,
+                      int wm, int wk, int bm, int bk, PieceColor sideToMove) {
+        long index = rank(whiteMen);
+        index = index * BINOMIAL[Board.SQUARES][wk] + rank(whiteKings);
+        index = index * BINOMIAL[Board.SQUARES][bm] + rank(blackMen);
+        index = index * BINOMIAL[Board.SQUARES][bk] + rank(blackKings);
+        return index * 2 + (sideToMove == PieceColor.WHITE ? 0 : 1);
+    }
+
+    /** Colex rank of a square set among all sets of the same size. */
+    static int rank(int squares) {
+        int rank = 0;
+        int k = 1;
+        for (int m = squares; m != 0; m &= m - 1) {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(m)][k++];
+        }
+        return rank;
+    }
+
+    private static int sliceId(int wm, int wk, int bm, int bk) {
+        return ((wm * GROUP_LIMIT + wk) * GROUP_LIMIT + bm) * GROUP_LIMIT + bk;
+    }
+
+    public static int win(int plies) { return plies; }
+    public static int loss(int plies) { return -plies - 1; }
+    public static boolean isWin(int value) { return value > 0 && value != UNKNOWN; }
+    public static boolean isLoss(int value) { return value < 0 && value != UNKNOWN; }
+
+    /** Plies to the end of the game for a won or lost value. */
+    public static int plies(int value) {
+        return value > 0 ? value : -value - 1;
+    }
+}
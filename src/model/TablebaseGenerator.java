@@ -0,0 +1,358 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Builds win/loss/draw tablebases with distance to the end of the game for
+ * every position of up to {@code maxPieces} pieces.
+ * <p>
+ * Slices are solved in dependency order: fewer pieces first, because
+ * captures lead there, and within a piece count fewer men first, because
+ * promotions lead there. One forward pass over the slice, split across
+ * threads, settles every position whose moves all leave the slice and counts
+ * the quiet moves that stay inside it. The rest is retrograde: level by
+ * level, each position just settled at {@code d} plies is un-moved to its
+ * predecessors. A predecessor of a loss is won in {@code d + 1}; a
+ * predecessor whose last open move turns out won for the opponent is lost.
+ * Positions never settled are draws. A slice needs three bytes of heap per
+ * position, which is about 1.5 GB for the largest 6-piece slices.
+ * <p>
+ * Generation is resumable. A slice is written to a temporary file and
+ * renamed once complete, and existing slice files are skipped.
+ */
+public class TablebaseGenerator {
+    private static final Logger LOGGER = Logger.getLogger(TablebaseGenerator.class.getName());
+    private static final int CHUNK = 1 << 14;
+    /** Values copied to the file per write, so saving a slice needs no second full-size buffer. */
+    private static final int WRITE_CHUNK = 1 << 16;
+
+    private final Path directory;
+    private final int maxPieces;
+    private final int threads;
+    private final int[][] combinations = new int[Tablebase.MAX_SUPPORTED_PIECES + 1][];
+    private Tablebase tablebase;
+    private int longestKnown;
+
+    public TablebaseGenerator(Path directory, int maxPieces, int threads) {
+        if (maxPieces < 2 || maxPieces > Tablebase.MAX_SUPPORTED_PIECES) {
+            throw new IllegalArgumentException("Tablebases cover 2 to " + Tablebase.MAX_SUPPORTED_PIECES + " pieces");
+        }
+        this.directory = directory;
+        this.maxPieces = maxPieces;
+        this.threads = Math.max(1, threads);
+    }
+
+    public Tablebase generate() throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        tablebase = Tablebase.open(directory);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int pieces = 2; pieces <= maxPieces; pieces++) {
+                for (int men = 0; men <= pieces; men++) {
+                    for (int wm = 0; wm <= men; wm++) {
+                        for (int wk = 0; wk <= pieces - men; wk++) {
+                            int bm = men - wm;
+                            int bk = pieces - men - wk;
+                            if (wm + wk > 0 && bm + bk > 0) {
+                                generateSlice(pool, wm, wk, bm, bk);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return tablebase;
+    }
+
+    private void generateSlice(ExecutorService pool, int wm, int wk, int bm, int bk)
+            throws IOException, InterruptedException {
+        Path file = directory.resolve(Tablebase.fileName(wm, wk, bm, bk));
+        if (Files.exists(file)) {
+            longestKnown = Math.max(longestKnown, longestPlies(file));
+            LOGGER.info("Skipping finished slice " + file.getFileName());
+            return;
+        }
+        long start = System.nanoTime();
+        Slice slice = new Slice(wm, wk, bm, bk);
+        int size = (int) Tablebase.size(wm, wk, bm, bk);
+
+        runPass(pool, size, (solver, from, to) -> solver.initialize(slice, from, to));
+        Solver retrograde = new Solver();
+        int longest = 0;
+        for (int level = 0; level <= slice.deepest; level++) {
+            for (int i = 0; i < size; i++) {
+                short value = slice.values[i];
+                if (value != Tablebase.DRAW && !Slice.isOpen(value) && Tablebase.plies(value) == level) {
+                    retrograde.propagate(slice, i, level);
+                    longest = level;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (Slice.isOpen(slice.values[i])) slice.values[i] = Tablebase.DRAW;
+        }
+        longestKnown = Math.max(longestKnown, longest);
+
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(Tablebase.header(wm, wk, bm, bk));
+            ByteBuffer body = ByteBuffer.allocate(2 * WRITE_CHUNK);
+            for (int from = 0; from < size; from += WRITE_CHUNK) {
+                int length = Math.min(WRITE_CHUNK, size - from);
+                body.clear();
+                body.asShortBuffer().put(slice.values, from, length);
+                body.limit(2 * length);
+                while (body.hasRemaining()) channel.write(body);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        tablebase.map(file);
+        LOGGER.info(String.format("%s: %,d positions, longest %d plies, %d ms", file.getFileName(), size,
+                longest, (System.nanoTime() - start) / 1_000_000));
+    }
+
+    private interface ChunkTask {
+        void run(Solver solver, int from, int to);
+    }
+
+    private void runPass(ExecutorService pool, int size, ChunkTask task) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>();
+        ThreadLocal<Solver> solvers = ThreadLocal.withInitial(Solver::new);
+        for (int from = 0; from < size; from += CHUNK) {
+            int start = from;
+            int end = Math.min(size, from + CHUNK);
+            futures.add(pool.submit(() -> task.run(solvers.get(), start, end)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tablebase worker failed", e.getCause());
+            }
+        }
+    }
+
+    private int[] combinations(int k) {
+        synchronized (combinations) {
+            if (combinations[k] == null) {
+                int[] sets = new int[Tablebase.BINOMIAL[Board.SQUARES][k]];
+                if (k == 0) {
+                    sets[0] = 0;
+                } else {
+                    // Gosper's hack walks k-subsets in increasing order, which is colex rank order.
+                    int set = (1 << k) - 1;
+                    for (int i = 0; i < sets.length; i++) {
+                        sets[i] = set;
+                        int lowest = set & -set;
+                        int ripple = set + lowest;
+                        set = i + 1 < sets.length ? (((ripple ^ set) >>> 2) / lowest) | ripple : 0;
+                    }
+                }
+                combinations[k] = sets;
+            }
+            return combinations[k];
+        }
+    }
+
+    private static int longestPlies(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int longest = 0;
+            for (int offset = Tablebase.HEADER_BYTES; offset < buffer.limit(); offset += 2) {
+                longest = Math.max(longest, Tablebase.plies(buffer.getShort(offset)));
+            }
+            return longest;
+        }
+    }
+
+    /**
+     * The slice being solved. A settled position holds its final value. An
+     * open one holds {@link #OPEN} plus the longest win its moves out of the
+     * slice give the opponent, or {@link #CANNOT_LOSE} when one of them draws,
+     * and counts its quiet moves inside the slice that are not yet known to
+     * lose.
+     */
+    private final class Slice {
+        static final short OPEN = 0x4000;
+        static final short CANNOT_LOSE = Short.MIN_VALUE;
+
+        final int wm, wk, bm, bk;
+        final int[] whiteMenSets, whiteKingSets, blackMenSets, blackKingSets;
+        final short[] values;
+        final byte[] openMoves;
+        int deepest;
+
+        Slice(int wm, int wk, int bm, int bk) {
+            this.wm = wm;
+            this.wk = wk;
+            this.bm = bm;
+            this.bk = bk;
+            whiteMenSets = combinations(wm);
+            whiteKingSets = combinations(wk);
+            blackMenSets = combinations(bm);
+            blackKingSets = combinations(bk);
+            int size = (int) Tablebase.size(wm, wk, bm, bk);
+            values = new short[size];
+            openMoves = new byte[size];
+        }
+
+        static boolean isOpen(short value) {
+            return value >= OPEN || value == CANNOT_LOSE;
+        }
+
+        synchronized void reached(int plies) {
+            deepest = Math.max(deepest, plies);
+        }
+    }
+
+    /** Per-thread scratch state. */
+    private final class Solver {
+        final Board board = new Board();
+        final MoveList moves = new MoveList();
+        int whiteMen, whiteKings, blackMen, blackKings;
+
+        void decode(Slice slice, int index) {
+            int rest = index >>> 1;
+            blackKings = slice.blackKingSets[rest % slice.blackKingSets.length];
+            rest /= slice.blackKingSets.length;
+            blackMen = slice.blackMenSets[rest % slice.blackMenSets.length];
+            rest /= slice.blackMenSets.length;
+            whiteKings = slice.whiteKingSets[rest % slice.whiteKingSets.length];
+            rest /= slice.whiteKingSets.length;
+            whiteMen = slice.whiteMenSets[rest];
+        }
+
+        /** Forward pass: settles what moves out of the slice decide and counts the moves that stay. */
+        void initialize(Slice slice, int from, int to) {
+            int deepest = 0;
+            for (int i = from; i < to; i++) {
+                decode(slice, i);
+                int all = whiteMen | whiteKings | blackMen | blackKings;
+                boolean overlapping = Integer.bitCount(all) != slice.wm + slice.wk + slice.bm + slice.bk;
+                boolean uncrowned = (whiteMen & Board.TOP_ROW) != 0 || (blackMen & Board.BOTTOM_ROW) != 0;
+                if (overlapping || uncrowned) continue;
+
+                PieceColor color = (i & 1) == 0 ? PieceColor.WHITE : PieceColor.BLACK;
+                board.setPosition(whiteMen | whiteKings, blackMen | blackKings, whiteKings | blackKings);
+                int count = board.generateMoves(color, moves);
+                int inside = 0;
+                int shortestLoss = Integer.MAX_VALUE;
+                int longestWin = 0;
+                boolean draws = false;
+                for (int m = 0; m < count; m++) {
+                    board.makeMove(moves.get(m), moves.captured(m));
+                    if (inSlice(slice)) {
+                        inside++;
+                    } else {
+                        int child = exitValue(color.opposite());
+                        if (Tablebase.isLoss(child)) shortestLoss = Math.min(shortestLoss, Tablebase.plies(child));
+                        else if (Tablebase.isWin(child)) longestWin = Math.max(longestWin, Tablebase.plies(child));
+                        else draws = true;
+                    }
+                    board.unmakeMove();
+                }
+                short value;
+                if (shortestLoss != Integer.MAX_VALUE) {
+                    // May still shorten if a move inside the slice turns out to win sooner.
+                    value = (short) Tablebase.win(shortestLoss + 1);
+                } else if (inside == 0) {
+                    value = draws ? Tablebase.DRAW : (short) Tablebase.loss(count == 0 ? 0 : longestWin + 1);
+                } else {
+                    value = draws ? Slice.CANNOT_LOSE : (short) (Slice.OPEN + longestWin);
+                }
+                if (inside > Byte.MAX_VALUE) {
+                    throw new IllegalStateException(inside + " quiet moves in one position");
+                }
+                slice.values[i] = value;
+                slice.openMoves[i] = (byte) inside;
+                if (!Slice.isOpen(value)) deepest = Math.max(deepest, Tablebase.plies(value));
+            }
+            slice.reached(deepest);
+        }
+
+        /** Passes the value of position {@code index}, settled at {@code level} plies, back to its predecessors. */
+        void propagate(Slice slice, int index, int level) {
+            decode(slice, index);
+            boolean lost = Tablebase.isLoss(slice.values[index]);
+            PieceColor mover = (index & 1) == 0 ? PieceColor.BLACK : PieceColor.WHITE;
+            int own = mover == PieceColor.WHITE ? whiteMen | whiteKings : blackMen | blackKings;
+            int kings = whiteKings | blackKings;
+            int empty = ~(whiteMen | whiteKings | blackMen | blackKings);
+            for (int m = own; m != 0; m &= m - 1) {
+                int bit = m & -m;
+                boolean king = (kings & bit) != 0;
+                for (int dir = Board.UP_LEFT; dir <= Board.DOWN_RIGHT; dir++) {
+                    // A man came from behind; a king may have slid from any distance.
+                    if (!king && Board.isForward(mover, dir)) continue;
+                    for (int back = Board.step(bit, dir) & empty; back != 0;
+                         back = king ? Board.step(back, dir) & empty : 0) {
+                        unmove(slice, mover, bit, back, king, lost, level);
+                    }
+                }
+            }
+        }
+
+        private void unmove(Slice slice, PieceColor mover, int at, int back, boolean king, boolean lost, int level) {
+            int white = whiteMen | whiteKings;
+            int black = blackMen | blackKings;
+            int kings = whiteKings | blackKings;
+            if (mover == PieceColor.WHITE) white = white & ~at | back;
+            else black = black & ~at | back;
+            if (king) kings = kings & ~at | back;
+            int index = (int) Tablebase.index(white & ~kings, white & kings, black & ~kings, black & kings,
+                    slice.wm, slice.wk, slice.bm, slice.bk, mover);
+            // No open quiet moves means the position had to capture, or is already lost.
+            if (slice.openMoves[index] == 0) return;
+            short value = slice.values[index];
+            if (lost) {
+                int plies = level + 1;
+                if (Slice.isOpen(value) || Tablebase.isWin(value) && Tablebase.plies(value) > plies) {
+                    slice.values[index] = (short) Tablebase.win(plies);
+                    slice.reached(plies);
+                }
+            } else if (Slice.isOpen(value) && --slice.openMoves[index] == 0 && value != Slice.CANNOT_LOSE) {
+                int plies = Math.max(level, value - Slice.OPEN) + 1;
+                slice.values[index] = (short) Tablebase.loss(plies);
+                slice.reached(plies);
+            }
+        }
+
+        private boolean inSlice(Slice slice) {
+            int white = board.whites();
+            int black = board.blacks();
+            int kings = board.kings();
+            return Integer.bitCount(white & ~kings) == slice.wm && Integer.bitCount(white & kings) == slice.wk
+                    && Integer.bitCount(black & ~kings) == slice.bm && Integer.bitCount(black & kings) == slice.bk;
+        }
+
+        private int exitValue(PieceColor sideToMove) {
+            int white = board.whites();
+            int black = board.blacks();
+            int kings = board.kings();
+            if ((sideToMove == PieceColor.WHITE ? white : black) == 0) return Tablebase.loss(0);
+            int value = tablebase.probe(white, black, kings, sideToMove);
+            if (value == Tablebase.UNKNOWN) {
+                throw new IllegalStateException("Slice " + Tablebase.fileName(Integer.bitCount(white & ~kings),
+                        Integer.bitCount(white & kings), Integer.bitCount(black & ~kings),
+                        Integer.bitCount(black & kings)) + " is missing");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Plays engine-versus-engine matches without the UI. Games run on a fixed
+ * pool, and each worker thread builds its own instance of both engines, so
+ * engines keep per-thread state such as hash tables between games.
+ * <p>
+ * Games come in pairs. Each pair opens with the same random plies and gives
+ * each engine each color once.
+ */
+public class Tournament {
+    private final Supplier<AI> first;
+    private final Supplier<AI> second;
+    private final int threads;
+    private final int maxPlies;
+    private final int randomPlies;
+    private final long seed;
+
+    /**
+     * @param maxPlies a game still running after this many plies is a draw
+     * @param randomPlies plies played at random before the engines take over
+     */
+    public Tournament(Supplier<AI> first, Supplier<AI> second, int threads, int maxPlies, int randomPlies, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.first = first;
+        this.second = second;
+        this.threads = threads;
+        this.maxPlies = maxPlies;
+        this.randomPlies = randomPlies;
+        this.seed = seed;
+    }
+
+    public Result play(int games) throws InterruptedException {
+        ThreadLocal<AI> firstEngine = ThreadLocal.withInitial(first);
+        ThreadLocal<AI> secondEngine = ThreadLocal.withInitial(second);
+        Result result = new Result();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> running = new ArrayList<>(games);
+            for (int game = 0; game < games; game++) {
+                boolean firstIsWhite = (game & 1) == 0;
+                long opening = seed + game / 2;
+                running.add(pool.submit(() -> {
+                    AI white = firstIsWhite ? firstEngine.get() : secondEngine.get();
+                    AI black = firstIsWhite ? secondEngine.get() : firstEngine.get();
+                    playGame(white, black, firstIsWhite, new Random(opening), result);
+                }));
+            }
+            for (Future<?> game : running) {
+                try {
+                    game.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Game failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void playGame(AI white, AI black, boolean firstIsWhite, Random random, Result result) {
+        Board board = new Board();
+        PieceColor color = PieceColor.WHITE;
+        PieceColor winner = null;
+        long[] thinkNanos = new long[2];
+        long[] nodes = new long[2];
+        int[] moves = new int[2];
+        for (int ply = 0; ply < maxPlies; ply++) {
+            List<Move> legal = board.getValidMoves(color);
+            if (legal.isEmpty()) {
+                winner = color.opposite();
+                break;
+            }
+            Move move;
+            if (ply < randomPlies) {
+                move = legal.get(random.nextInt(legal.size()));
+            } else {
+                AI engine = color == PieceColor.WHITE ? white : black;
+                // Engine slot 0 is the first engine, whichever color it has this game.
+                int slot = (color == PieceColor.WHITE) == firstIsWhite ? 0 : 1;
+                long start = System.nanoTime();
+                move = engine.makeMove(board, color);
+                thinkNanos[slot] += System.nanoTime() - start;
+                moves[slot]++;
+                if (engine instanceof HardAI) nodes[slot] += ((HardAI) engine).getNodes();
+                if (move == null) {
+                    winner = color.opposite();
+                    break;
+                }
+            }
+            board.applyMove(move);
+            color = color.opposite();
+        }
+        int outcome = winner == null ? 1 : (winner == PieceColor.WHITE) == firstIsWhite ? 0 : 2;
+        result.record(firstIsWhite, outcome, thinkNanos, nodes, moves);
+    }
+
+    /** Match totals, always from the first engine's point of view. */
+    public static final class Result {
+        /** [first engine's color: 0 white, 1 black][0 win, 1 draw, 2 loss]. */
+        private final int[][] outcomes = new int[2][3];
+        private final long[] thinkNanos = new long[2];
+        private final long[] nodes = new long[2];
+        private final long[] moves = new long[2];
+        private long elapsedNanos;
+
+        private synchronized void record(boolean firstIsWhite, int outcome, long[] think, long[] searched, int[] played) {
+            outcomes[firstIsWhite ? 0 : 1][outcome]++;
+            for (int i = 0; i < 2; i++) {
+                thinkNanos[i] += think[i];
+                nodes[i] += searched[i];
+                moves[i] += played[i];
+            }
+        }
+
+        public synchronized int getGames() {
+            return getWins() + getDraws() + getLosses();
+        }
+
+        public synchronized int getWins() { return outcomes[0][0] + outcomes[1][0]; }
+        public synchronized int getDraws() { return outcomes[0][1] + outcomes[1][1]; }
+        public synchronized int getLosses() { return outcomes[0][2] + outcomes[1][2]; }
+
+        /** Wins, draws and losses of the first engine when it played {@code color}. */
+        public synchronized int[] getOutcomes(PieceColor color) {
+            return outcomes[color == PieceColor.WHITE ? 0 : 1].clone();
+        }
+
+        /** Mean think time per move in milliseconds; engine 0 is the first engine, 1 the second. */
+        public synchronized double getAverageThinkMillis(int engine) {
+            return moves[engine] == 0 ? 0 : thinkNanos[engine] / 1e6 / moves[engine];
+        }
+
+        /** Search speed of an engine, or 0 for engines that do not report nodes. */
+        public synchronized double getNodesPerSecond(int engine) {
+            return thinkNanos[engine] == 0 ? 0 : nodes[engine] * 1e9 / thinkNanos[engine];
+        }
+
+        public synchronized double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results indexed by Zobrist key. A slot is
+ * overwritten when it is empty, holds the same position, was written by an
+ * earlier search, or holds a shallower result than the incoming one.
+ * <p>
+ * The table is shared by all search threads without locking: the stored key
+ * is XORed with the entry's payload, so a slot torn by two concurrent writers
+ * fails verification and reads as a miss instead of returning mixed data.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    private static final int ENTRY_BYTES = 24;
+
+    private final long[] keys;
+    private final long[] data;
+    private final long[] bestMoves;
+    private final int mask;
+    private volatile int generation;
+
+    /** Per-thread probe result and hit counters, so probing allocates nothing and needs no shared counters. */
+    public static final class Probe {
+        private int score;
+        private int depth;
+        private int bound;
+        private int move;
+        private int captured;
+        private long probes;
+        private long hits;
+
+        public int score() { return score; }
+        public int depth() { return depth; }
+        public int bound() { return bound; }
+        public int move() { return move; }
+        public int captured() { return captured; }
+        public long getProbes() { return probes; }
+        public long getHits() { return hits; }
+
+        public void resetCounters() {
+            probes = 0;
+            hits = 0;
+        }
+    }
+
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        int size = (int) Math.min(entries, 1 << 30);
+        keys = new long[size];
+        data = new long[size];
+        bestMoves = new long[size];
+        mask = size - 1;
+    }
+
+    /** Marks entries from previous searches as replaceable. */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /** Looks up {@code key} and, on a hit, copies the entry into {@code probe}. */
+    public boolean probe(long key, Probe probe) {
+        probe.probes++;
+        int index = (int) key & mask;
+        long entry = data[index];
+        long best = bestMoves[index];
+        if (entry == 0 || (keys[index] ^ entry ^ best) != key) return false;
+        probe.hits++;
+        probe.score = (int) (entry >> 32);
+        probe.depth = (int) (entry >>> 8) & 0xFF;
+        probe.bound = (int) (entry >>> 16) & 0x3;
+        probe.move = (int) best;
+        probe.captured = (int) (best >>> 32);
+        return true;
+    }
+
+    public void store(long key, int depth, int bound, int score, int move, int captured) {
+        int index = (int) key & mask;
+        long old = data[index];
+        int currentGeneration = generation;
+        boolean replace = old == 0
+                || (keys[index] ^ old ^ bestMoves[index]) == key
+                || (old & 0xFF) != currentGeneration
+                || depth >= ((old >>> 8) & 0xFF);
+        if (!replace) return;
+        // Bit 18 keeps a stored entry non-zero even with generation, depth and bound all 0.
+        long entry = (long) score << 32 | 1L << 18 | (long) bound << 16 | (long) depth << 8 | currentGeneration;
+        long best = (long) captured << 32 | (move & 0xFFFFFFFFL);
+        keys[index] = key ^ entry ^ best;
+        data[index] = entry;
+        bestMoves[index] = best;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        Arrays.fill(bestMoves, 0L);
+    }
+
+    public int capacity() { return keys.length; }
+}
@@ -0,0 +1,27 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/** Fixed random keys for 64-bit position hashing. The seed is constant so hashes are stable across runs. */
+final class Zobrist {
+    private static final long[] PIECES = new long[4 * Board.SQUARES];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L);
+        for (int i = 0; i < PIECES.length; i++) {
+            PIECES[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    static long piece(boolean white, boolean king, int sq) {
+        return PIECES[(white ? 0 : 64) + (king ? 32 : 0) + sq];
+    }
+
+    static long side(PieceColor color) {
+        return color == PieceColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+}
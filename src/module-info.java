@@ -1,4 +1,7 @@
 module Checkers {
 	requires java.desktop;
 	requires java.sql;
+	requires java.management;
+
+	exports model to java.management;
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.BatchAnalyzer;
+import model.Board;
+import model.PieceColor;
+import model.PositionReader;
+
+/**
+ * Scores a batch of positions and reports throughput. Positions come from a
+ * file written by {@link DumpSelfPlay}, or are random playouts from the start:
+ * <pre>
+ *   BatchAnalyze [file] [--count N] [--depth N] [--threads N] [--hash MB]
+ * </pre>
+ */
+public class BatchAnalyze {
+    public static void main(String[] args) throws Exception {
+        String file = null;
+        int count = 10_000;
+        int depth = 6;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hash = 4;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--count" -> count = Integer.parseInt(args[++i]);
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--hash" -> hash = Integer.parseInt(args[++i]);
+                default -> file = args[i];
+            }
+        }
+
+        List<BatchAnalyzer.Position> positions = new ArrayList<>();
+        if (file != null) {
+            try (PositionReader reader = PositionReader.open(Paths.get(file))) {
+                while (positions.size() < count && reader.next()) {
+                    Board board = new Board();
+                    reader.load(board);
+                    positions.add(new BatchAnalyzer.Position(board, reader.getSideToMove()));
+                }
+            }
+        } else {
+            Random random = new Random(1);
+            while (positions.size() < count) {
+                Board board = new Board();
+                PieceColor color = RandomPlayout.play(board, PieceColor.WHITE, random.nextInt(40), random);
+                positions.add(new BatchAnalyzer.Position(board, color));
+            }
+        }
+
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(depth, threads, hash)) {
+            BatchAnalyzer.Analysis[] results = analyzer.analyze(positions.stream());
+            long nodes = 0;
+            long lost = 0;
+            for (BatchAnalyzer.Analysis result : results) {
+                nodes += result.getNodes();
+                if (result.getBestMove() == null) lost++;
+            }
+            System.out.printf("%d positions at depth %d on %d threads in %d ms: %,.0f positions/s, %,d nodes, %d lost%n",
+                    results.length, depth, threads, analyzer.getLastElapsedMillis(), analyzer.getPositionsPerSecond(),
+                    nodes, lost);
+        }
+    }
+}
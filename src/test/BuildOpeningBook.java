@@ -0,0 +1,91 @@
+package test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Board;
+import model.HardAI;
+import model.Move;
+import model.OpeningBook;
+import model.OpeningBookBuilder;
+import model.PieceColor;
+
+/**
+ * Builds an opening book from HardAI self-play. The first few plies of each
+ * game are random so the games spread over many openings:
+ * <pre>
+ *   BuildOpeningBook [file] [--games N] [--depth N] [--plies N] [--random N] [--min-games N]
+ * </pre>
+ * Load the result with {@code -Dcheckers.openingBook=FILE}.
+ */
+public class BuildOpeningBook {
+    private static final int MAX_GAME_PLIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get("opening.book");
+        int games = 200;
+        int depth = 6;
+        int plies = 12;
+        int randomPlies = 4;
+        int minGames = 2;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--plies" -> plies = Integer.parseInt(args[++i]);
+                case "--random" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--min-games" -> minGames = Integer.parseInt(args[++i]);
+                default -> file = Paths.get(args[i]);
+            }
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies, minGames);
+        HardAI engine = new HardAI(depth, 0, 4, 1);
+        engine.setOpeningBook(null);
+        Random random = new Random();
+        int[] results = new int[3];
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            Board board = new Board();
+            List<Move> played = new ArrayList<>();
+            PieceColor color = RandomPlayout.play(board, PieceColor.WHITE, Math.min(randomPlies, MAX_GAME_PLIES), random,
+                    played);
+            PieceColor winner = null;
+            while (played.size() < MAX_GAME_PLIES) {
+                if (!board.hasAnyLegalMove(color)) {
+                    winner = color.opposite();
+                    break;
+                }
+                Move move = engine.makeMove(board, color);
+                board.applyMove(move);
+                played.add(move);
+                color = color.opposite();
+            }
+            builder.addGame(new Board(), PieceColor.WHITE, played, winner);
+            results[winner == PieceColor.WHITE ? 0 : winner == null ? 1 : 2]++;
+        }
+        builder.write(file);
+
+        OpeningBook book = OpeningBook.open(file);
+        System.out.printf("%d games (white %d, draws %d, black %d) in %d ms: %d positions, %d book moves in %s%n",
+                games, results[0], results[1], results[2], (System.nanoTime() - start) / 1_000_000,
+                builder.getPositions(), book.getEntries(), file);
+
+        Board startPosition = new Board();
+        int lookups = 100_000;
+        long lookupStart = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            book.lookup(startPosition, PieceColor.WHITE);
+        }
+        System.out.printf("Start position lookup: %.2f us%n", (System.nanoTime() - lookupStart) / 1000.0 / lookups);
+        for (OpeningBook.BookMove move : book.getMoves(startPosition, PieceColor.WHITE)) {
+            Move m = move.getMove();
+            System.out.printf("  (%d,%d) -> (%d,%d)  weight %d, %d games, +%d =%d -%d%n", m.getFrom().x, m.getFrom().y,
+                    m.getTo().x, m.getTo().y, move.getWeight(), move.getGames(), move.getWins(), move.getDraws(),
+                    move.getLosses());
+        }
+    }
+}
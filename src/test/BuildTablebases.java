@@ -0,0 +1,49 @@
+package test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import model.Board;
+import model.PieceColor;
+import model.Tablebase;
+import model.TablebaseGenerator;
+
+/**
+ * Builds endgame tablebases, resuming from any slices already on disk:
+ * <pre>
+ *   BuildTablebases [directory] [--pieces N] [--threads N] [--probe FEN]
+ * </pre>
+ * Point the game at the directory with {@code -Dcheckers.tablebases=DIR}.
+ */
+public class BuildTablebases {
+    public static void main(String[] args) throws Exception {
+        Path directory = Paths.get("tablebases");
+        int pieces = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String probe = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--pieces" -> pieces = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--probe" -> probe = args[++i];
+                default -> directory = Paths.get(args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        Tablebase tablebase = new TablebaseGenerator(directory, pieces, threads).generate();
+        System.out.printf("Tablebases up to %d pieces ready in %s (%d ms)%n", tablebase.getMaxPieces(), directory,
+                (System.nanoTime() - start) / 1_000_000);
+
+        if (probe != null) {
+            Board board = Board.fromFen(probe);
+            PieceColor side = Board.sideToMove(probe);
+            int value = tablebase.probe(board, side);
+            String result = value == Tablebase.UNKNOWN ? "not covered"
+                    : Tablebase.isWin(value) ? "win in " + Tablebase.plies(value) + " plies"
+                    : Tablebase.isLoss(value) ? "loss in " + Tablebase.plies(value) + " plies"
+                    : "draw";
+            System.out.println(probe + ": " + side + " to move, " + result);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.Board;
+import model.HardAI;
+import model.Move;
+import model.PieceColor;
+import model.PositionReader;
+import model.PositionWriter;
+
+/**
+ * Appends HardAI self-play positions, labelled with the search score and the
+ * final result, to a binary position file:
+ * <pre>
+ *   DumpSelfPlay [file] [--games N] [--depth N] [--threads N] [--random N]
+ * </pre>
+ */
+public class DumpSelfPlay {
+    private static final int MAX_GAME_PLIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get("positions.bin");
+        int games = 100;
+        int depth = 6;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int randomPlies = 6;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--random" -> randomPlies = Integer.parseInt(args[++i]);
+                default -> file = Paths.get(args[i]);
+            }
+        }
+
+        int searchDepth = depth;
+        int openingPlies = randomPlies;
+        ThreadLocal<HardAI> engines = ThreadLocal.withInitial(() -> {
+            HardAI engine = new HardAI(searchDepth, 0, 4, 1);
+            // A book move skips the search, which would leave a stale score as the label.
+            engine.setOpeningBook(null);
+            return engine;
+        });
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (PositionWriter writer = PositionWriter.append(file)) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int game = 0; game < games; game++) {
+                long seed = game;
+                running.add(pool.submit(() -> {
+                    playGame(engines.get(), new Random(seed), openingPlies, writer);
+                    return null;
+                }));
+            }
+            for (Future<?> game : running) {
+                game.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d games, %d positions appended to %s in %d ms%n", games, writer.getWritten(), file,
+                    elapsed / 1_000_000);
+        } finally {
+            pool.shutdown();
+        }
+
+        long readStart = System.nanoTime();
+        long records = 0;
+        long whiteWins = 0;
+        try (PositionReader reader = PositionReader.open(file)) {
+            while (reader.next()) {
+                records++;
+                if (reader.getResult() > 0) whiteWins++;
+            }
+        }
+        double seconds = (System.nanoTime() - readStart) / 1e9;
+        System.out.printf("%s holds %d positions (%d from white wins), read at %,.0f positions/s%n", file, records,
+                whiteWins, records / seconds);
+    }
+
+    private static void playGame(HardAI engine, Random random, int randomPlies, PositionWriter writer)
+            throws Exception {
+        Board board = new Board();
+        int opening = Math.min(randomPlies, MAX_GAME_PLIES);
+        PieceColor color = RandomPlayout.play(board, PieceColor.WHITE, opening, random);
+        PieceColor winner = null;
+        List<Board> positions = new ArrayList<>();
+        List<PieceColor> sides = new ArrayList<>();
+        List<Integer> scores = new ArrayList<>();
+        for (int ply = opening; ply < MAX_GAME_PLIES; ply++) {
+            List<Move> legal = board.getValidMoves(color);
+            if (legal.isEmpty()) {
+                winner = color.opposite();
+                break;
+            }
+            Move move = engine.makeMove(board, color);
+            if (legal.size() > 1) {
+                positions.add(board.copy());
+                sides.add(color);
+                scores.add(engine.getScore());
+            }
+            board.applyMove(move);
+            color = color.opposite();
+        }
+        synchronized (writer) {
+            for (int i = 0; i < positions.size(); i++) {
+                writer.write(positions.get(i), sides.get(i), scores.get(i), winner);
+            }
+        }
+    }
+}
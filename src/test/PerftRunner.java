@@ -0,0 +1,97 @@
+package test;
+
+import model.Board;
+import model.Move;
+import model.Perft;
+import model.PieceColor;
+
+/**
+ * Command-line perft. Without arguments it checks the built-in suite against
+ * known node counts; otherwise it counts one position:
+ * <pre>
+ *   PerftRunner [depth] [--fen FEN] [--divide] [--bulk] [--threads N]
+ * </pre>
+ */
+public class PerftRunner {
+    private static final String START = "W:W21,22,23,24,25,26,27,28,29,30,31,32:B1,2,3,4,5,6,7,8,9,10,11,12";
+
+    private static final String[] SUITE_FENS = {
+        START,
+        "W:WK14,K19:BK5,10,K27",
+        "W:W26,30,31:B6,7,14,15,22,23",
+        "B:W6,7,K20:BK10,25,26",
+    };
+
+    private static final long[][] SUITE_COUNTS = {
+        {7L, 49L, 302L, 1469L, 7361L, 36768L, 179740L, 845931L, 3963702L, 18407413L},
+        {1L, 13L, 195L, 2179L, 29331L, 350142L, 4554906L, 55754294L},
+        {4L, 24L, 158L, 610L, 3414L, 13819L, 79863L, 354206L, 2199030L, 12194264L},
+        {2L, 16L, 162L, 1368L, 14392L, 139824L, 1652888L, 17494268L},
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        int depth = 0;
+        String fen = START;
+        boolean divide = false;
+        boolean bulk = false;
+        int threads = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fen" -> fen = args[++i];
+                case "--divide" -> divide = true;
+                case "--bulk" -> bulk = true;
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> depth = Integer.parseInt(args[i]);
+            }
+        }
+
+        if (depth == 0) {
+            System.exit(runSuite(bulk, threads) ? 0 : 1);
+        }
+
+        Board board = Board.fromFen(fen);
+        PieceColor color = Board.sideToMove(fen);
+        if (divide) {
+            long total = 0;
+            for (Perft.Division division : new Perft(depth, bulk).divide(board, color, depth)) {
+                Move move = division.getMove();
+                System.out.printf("%s -> %s  %d%n", format(move.getFrom()), format(move.getTo()), division.getNodes());
+                total += division.getNodes();
+            }
+            System.out.println("total " + total);
+            return;
+        }
+        for (int d = 1; d <= depth; d++) {
+            report(board, color, d, bulk, threads, -1);
+        }
+    }
+
+    private static boolean runSuite(boolean bulk, int threads) throws InterruptedException {
+        boolean ok = true;
+        for (int i = 0; i < SUITE_FENS.length; i++) {
+            System.out.println(SUITE_FENS[i]);
+            Board board = Board.fromFen(SUITE_FENS[i]);
+            PieceColor color = Board.sideToMove(SUITE_FENS[i]);
+            for (int d = 1; d <= SUITE_COUNTS[i].length; d++) {
+                ok &= report(board, color, d, bulk, threads, SUITE_COUNTS[i][d - 1]);
+            }
+        }
+        System.out.println(ok ? "All perft counts match" : "PERFT MISMATCH");
+        return ok;
+    }
+
+    private static boolean report(Board board, PieceColor color, int depth, boolean bulk, int threads, long expected)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long nodes = Perft.countParallel(board, color, depth, bulk, threads);
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        boolean ok = expected < 0 || nodes == expected;
+        System.out.printf("  depth %2d  %,14d nodes  %8.3f s  %,14.0f nps%s%n", depth, nodes, seconds, nodes / seconds,
+                ok ? "" : "  expected " + expected);
+        return ok;
+    }
+
+    private static String format(java.awt.Point p) {
+        return "(" + p.x + "," + p.y + ")";
+    }
+}
@@ -0,0 +1,35 @@
+package test;
+
+import java.util.List;
+import java.util.Random;
+
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.PieceColor;
+
+/** Random legal-move playouts for spreading test positions and openings over the game. */
+public final class RandomPlayout {
+    private RandomPlayout() {}
+
+    /**
+     * Plays up to {@code plies} uniformly random legal moves on {@code board},
+     * {@code color} first, and returns the side to move afterwards. Stops
+     * early when a side has no move.
+     */
+    public static PieceColor play(Board board, PieceColor color, int plies, Random random) {
+        return play(board, color, plies, random, null);
+    }
+
+    /** As {@link #play(Board, PieceColor, int, Random)}, appending each move to {@code played} when it is not null. */
+    public static PieceColor play(Board board, PieceColor color, int plies, Random random, List<Move> played) {
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < plies && board.generateMoves(color, moves) > 0; ply++) {
+            int i = random.nextInt(moves.size());
+            if (played != null) played.add(moves.toMove(i));
+            board.applyMove(moves.get(i), moves.captured(i));
+            color = color.opposite();
+        }
+        return color;
+    }
+}
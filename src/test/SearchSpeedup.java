@@ -0,0 +1,53 @@
+package test;
+
+import java.util.Random;
+
+import model.Board;
+import model.HardAI;
+import model.PieceColor;
+
+/**
+ * Measures time-to-depth of HardAI for 1, 2, 4, 8 and 16 search threads (or
+ * the counts given as arguments) over a fixed set of midgame positions.
+ */
+public class SearchSpeedup {
+    private static final int DEPTH = Integer.getInteger("depth", 12);
+    private static final int POSITIONS = 20;
+
+    public static void main(String[] args) {
+        int[] threadCounts = args.length == 0 ? new int[] {1, 2, 4, 8, 16} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            threadCounts[i] = Integer.parseInt(args[i]);
+        }
+        Board[] positions = new Board[POSITIONS];
+        PieceColor[] sides = new PieceColor[POSITIONS];
+        Random random = new Random(42);
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Board();
+            sides[i] = RandomPlayout.play(positions[i], PieceColor.WHITE, 8 + random.nextInt(16), random);
+        }
+
+        System.out.printf("%d cores, depth %d, %d positions%n", Runtime.getRuntime().availableProcessors(), DEPTH, POSITIONS);
+        runSuite(new HardAI(DEPTH, 0, HardAI.DEFAULT_HASH_MB, 1), positions, sides); // JIT warm-up
+        double baseline = 0;
+        for (int threads : threadCounts) {
+            HardAI ai = new HardAI(DEPTH, 0, HardAI.DEFAULT_HASH_MB, threads);
+            long start = System.nanoTime();
+            long nodes = runSuite(ai, positions, sides);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (baseline == 0) baseline = seconds;
+            System.out.printf("%2d threads: %7.2f s, %,12d nodes, %,10.0f nps, speedup %.2fx%n",
+                    threads, seconds, nodes, nodes / seconds, baseline / seconds);
+        }
+    }
+
+    private static long runSuite(HardAI ai, Board[] positions, PieceColor[] sides) {
+        long nodes = 0;
+        for (int i = 0; i < positions.length; i++) {
+            ai.getTranspositionTable().clear();
+            ai.makeMove(positions[i], sides[i]);
+            nodes += ai.getNodes();
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,93 @@
+package test;
+
+import java.util.function.Supplier;
+
+import model.AI;
+import model.AIDifficulty;
+import model.AIFactory;
+import model.HardAI;
+import model.PieceColor;
+import model.Tournament;
+
+/**
+ * Headless engine match:
+ * <pre>
+ *   TournamentRunner FIRST SECOND [--games N] [--threads N] [--max-plies N] [--random N] [--seed N]
+ * </pre>
+ * An engine is a difficulty ({@code easy}, {@code medium}, {@code hard}) or a
+ * HardAI configuration such as {@code hard:depth=8,time=0,hash=4,threads=1}.
+ */
+public class TournamentRunner {
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: TournamentRunner FIRST SECOND [--games N] [--threads N] [--max-plies N]"
+                    + " [--random N] [--seed N]");
+            System.exit(1);
+        }
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxPlies = 200;
+        int randomPlies = 4;
+        long seed = 1;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--max-plies" -> maxPlies = Integer.parseInt(args[++i]);
+                case "--random" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Tournament tournament = new Tournament(engine(args[0]), engine(args[1]), threads, maxPlies, randomPlies, seed);
+        Tournament.Result result = tournament.play(games);
+
+        System.out.printf("%s vs %s: %d games on %d threads in %d ms (%.1f games/s)%n", args[0], args[1],
+                result.getGames(), threads, result.getElapsedMillis(), result.getGamesPerSecond());
+        String label = "%-" + Math.max(10, Math.max(args[0].length(), args[1].length())) + "s";
+        System.out.printf(label + " %6s %6s %6s%n", args[0], "win", "draw", "loss");
+        for (PieceColor color : PieceColor.values()) {
+            int[] outcomes = result.getOutcomes(color);
+            System.out.printf(label + " %6d %6d %6d%n", "as " + color.name().toLowerCase(), outcomes[0], outcomes[1],
+                    outcomes[2]);
+        }
+        System.out.printf(label + " %6d %6d %6d   score %.1f%%%n", "total", result.getWins(), result.getDraws(),
+                result.getLosses(), 100.0 * (result.getWins() + 0.5 * result.getDraws()) / result.getGames());
+        for (int engine = 0; engine < 2; engine++) {
+            System.out.printf(label + " %.2f ms/move, %,.0f nodes/s%n", args[engine],
+                    result.getAverageThinkMillis(engine), result.getNodesPerSecond(engine));
+        }
+    }
+
+    private static Supplier<AI> engine(String spec) {
+        String[] parts = spec.split(":", 2);
+        AIDifficulty difficulty = AIDifficulty.valueOf(parts[0].toUpperCase());
+        if (parts.length == 1) {
+            return () -> AIFactory.createAI(difficulty);
+        }
+        if (difficulty != AIDifficulty.HARD) {
+            throw new IllegalArgumentException("Only hard engines take options: " + spec);
+        }
+        int depth = HardAI.MAX_DEPTH;
+        long time = difficulty.getThinkTimeMillis();
+        int hash = HardAI.DEFAULT_HASH_MB;
+        int searchThreads = 1;
+        for (String option : parts[1].split(",")) {
+            String[] pair = option.split("=", 2);
+            int value = Integer.parseInt(pair[1].trim());
+            switch (pair[0].trim()) {
+                case "depth" -> depth = value;
+                case "time" -> time = value;
+                case "hash" -> hash = value;
+                case "threads" -> searchThreads = value;
+                default -> throw new IllegalArgumentException("Unknown engine option " + pair[0]);
+            }
+        }
+        int d = depth;
+        long t = time;
+        int h = hash;
+        int n = searchThreads;
+        return () -> new HardAI(d, t, h, n);
+    }
+}
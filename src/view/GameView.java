@@ -92,6 +92,7 @@ public class GameView extends JPanel {
     }
 
     private void returnToMainMenu() {
+        controller.stopAI();
         Container parent = getParent();
         while (parent != null && !(parent instanceof MainView)) {
             parent = parent.getParent();